@@ -0,0 +1,89 @@
+package solid.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import solid.openclosed.AreaCalculator;
+import solid.openclosed.AreaCalculatorBad;
+import solid.openclosed.Circle;
+import solid.openclosed.Rectangle;
+import solid.openclosed.ScalarAreaKernel;
+import solid.openclosed.Shape;
+import solid.openclosed.ShapeBatch;
+import solid.openclosed.VectorAreaKernel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Total area of a mixed list of rectangles and circles:
+ * per-object Shape.area(), AreaCalculatorBad's instanceof chain, and the packed ShapeBatch with the scalar and the
+ * Vector API kernels. The *Packed benchmarks reuse a batch built in setup; batchIncludingPacking packs every time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class AreaBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    List<Shape> shapes;
+    ShapeBatch batch;
+    final AreaCalculator calculator = new AreaCalculator();
+    final AreaCalculatorBad calculatorBad = new AreaCalculatorBad();
+    final ScalarAreaKernel scalar = new ScalarAreaKernel();
+    final VectorAreaKernel vector = new VectorAreaKernel();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        shapes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            shapes.add(random.nextBoolean()
+                    ? new Rectangle(random.nextDouble(1, 100), random.nextDouble(1, 100))
+                    : new Circle(random.nextDouble(1, 50)));
+        }
+        batch = ShapeBatch.of(shapes);
+    }
+
+    @Benchmark
+    public double perObjectArea() {
+        double total = 0;
+        for (Shape shape : shapes) {
+            total += calculator.calculateArea(shape);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double instanceofChain() {
+        double total = 0;
+        for (Shape shape : shapes) {
+            total += calculatorBad.calculateArea(shape);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double scalarPacked() {
+        return batch.totalArea(scalar);
+    }
+
+    @Benchmark
+    public double vectorPacked() {
+        return batch.totalArea(vector);
+    }
+
+    @Benchmark
+    public double[] vectorPackedAreas() {
+        return batch.areas(vector);
+    }
+
+    @Benchmark
+    public double batchIncludingPacking() {
+        return calculator.calculateTotalArea(shapes);
+    }
+}
@@ -0,0 +1,103 @@
+package solid.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import solid.openclosed.AreaCalculator;
+import solid.openclosed.AreaCalculatorBad;
+import solid.openclosed.Circle;
+import solid.openclosed.Ellipse;
+import solid.openclosed.Parallelogram;
+import solid.openclosed.Rectangle;
+import solid.openclosed.RegularPolygon;
+import solid.openclosed.Shape;
+import solid.openclosed.ShapeBuckets;
+import solid.openclosed.Square;
+import solid.openclosed.Trapezoid;
+import solid.openclosed.Triangle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of dispatching area() over a shuffled list with 2, 4 or 8 shape types:
+ * interface calls (mono/bimorphic at 2 types, megamorphic above), AreaCalculatorBad's instanceof chain, the
+ * sealed pattern switch, and per-type buckets (bucketedIncludingBucketing builds the buckets every time,
+ * bucketedPrebuilt reuses buckets built in setup).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+    @Param({"2", "4", "8"})
+    int types;
+
+    @Param({"100000"})
+    int size;
+
+    List<Shape> shapes;
+    ShapeBuckets buckets;
+    final AreaCalculator calculator = new AreaCalculator();
+    final AreaCalculatorBad calculatorBad = new AreaCalculatorBad();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        shapes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double a = random.nextDouble(1, 100);
+            double b = random.nextDouble(1, 100);
+            shapes.add(switch (random.nextInt(types)) {
+                case 0 -> new Rectangle(a, b);
+                case 1 -> new Circle(a);
+                case 2 -> new Square(a);
+                case 3 -> new Triangle(a, b);
+                case 4 -> new Ellipse(a, b);
+                case 5 -> new Trapezoid(a, b, random.nextDouble(1, 100));
+                case 6 -> new Parallelogram(a, b);
+                default -> new RegularPolygon(3 + random.nextInt(10), a);
+            });
+        }
+        buckets = ShapeBuckets.of(shapes);
+    }
+
+    @Benchmark
+    public double interfaceCall() {
+        double total = 0;
+        for (Shape shape : shapes) {
+            total += calculator.calculateArea(shape);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double instanceofChain() {
+        double total = 0;
+        for (Shape shape : shapes) {
+            total += calculatorBad.calculateArea(shape);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double patternSwitch() {
+        double total = 0;
+        for (Shape shape : shapes) {
+            total += calculator.calculateAreaSwitch(shape);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double bucketedIncludingBucketing() {
+        return calculator.calculateTotalAreaBucketed(shapes);
+    }
+
+    @Benchmark
+    public double bucketedPrebuilt() {
+        return buckets.totalArea();
+    }
+}
@@ -1,7 +1,10 @@
-import solid.liskovssubstitition.RectangleBad;
-import solid.liskovssubstitition.Shape;
-import solid.liskovssubstitition.Square;
-import solid.liskovssubstitition.SquareBad;
+import solid.openclosed.AreaCalculator;
+import solid.openclosed.Circle;
+import solid.openclosed.Rectangle;
+import solid.openclosed.Shape;
+
+import java.util.Arrays;
+import java.util.List;
 
 import static java.lang.System.*;
 
@@ -10,14 +13,23 @@ import static java.lang.System.*;
 // You can now see space characters in your code.
 public class Main {
     public static void main(String[] args) {
-        //empty method because not running anything
-        RectangleBad rectangle = new SquareBad();
-        rectangle.setWidth(5);
-        rectangle.setHeight(10);
-        out.println(rectangle.getArea());
+        //code that uses open closed principle: AreaCalculator works for any Shape
+        AreaCalculator calculator = new AreaCalculator();
+        Shape rectangle = new Rectangle(5, 10);
+        Shape circle = new Circle(2);
+        out.println(calculator.calculateArea(rectangle));
+        out.println(calculator.calculateArea(circle));
+
+        //many shapes at once: packed into primitive arrays and computed in bulk
+        List<Shape> shapes = List.of(rectangle, circle, new Rectangle(2, 3), new Circle(1));
+        out.println(Arrays.toString(calculator.calculateAreas(shapes)));
+        out.println(calculator.calculateTotalArea(shapes));
 
-        //code that uses liskov's substitution
-        Shape shape = new Square(5);
-        out.println(shape.getArea());
+        //running total: registered shapes update it by delta when they change
+        Circle growing = new Circle(1);
+        calculator.registerAll(shapes);
+        calculator.register(growing);
+        growing.setRadius(3);
+        out.println(calculator.getRegisteredTotalArea());
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,171 @@
 package solid.openclosed;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes areas of shapes, one at a time or in bulk, and keeps a running total over registered shapes.
+ * Running total: register() adds a shape's area to the total once, and for shapes that are AreaObservable
+ * (Circle, Rectangle) it listens to their setters, so a change to one shape moves the total by that shape's
+ * delta. getRegisteredTotalArea() is then O(1) however large the scene is, instead of a scan over every shape.
+ * The total is kept with compensated (Neumaier) summation, so many small deltas do not drift away from the
+ * exact sum. A NaN or infinite area (e.g. setRadius(Double.NaN), or a rectangle whose area overflows) is not added
+ * to that sum, which could never recover from it; such shapes are only counted, the total is NaN or infinite while
+ * any of them is registered, and it is exact again once they are fixed or unregistered.
+ * A mutable shape that is not AreaObservable must be unregistered and registered again after a change.
+ * The running total is not thread-safe, like the shapes that feed it.
+ */
 public class AreaCalculator {
+    private final Set<Shape> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Two compensated additions rather than one of newArea - oldArea: the difference itself can round away a small
+    // old area next to a huge new one, which would then stay in the total after the shape is unregistered.
+    private final AreaListener tracker = (shape, oldArea, newArea) -> {
+        remove(oldArea);
+        add(newArea);
+    };
+    private double total;
+    private double compensation;
+    private int nanCount;
+    private int positiveInfinityCount;
+    private int negativeInfinityCount;
+
     public double calculateArea(Shape shape) {
         return shape.area();
     }
+
+    /**
+     * Same result as calculateArea(), through a switch over the sealed Shape hierarchy.
+     * Every branch calls area() on a final class, which the JIT can inline no matter how many shape types flow
+     * through this method; shape.area() on the interface stops being inlined once more than two types show up.
+     */
+    public double calculateAreaSwitch(Shape shape) {
+        return switch (shape) {
+            case Rectangle rectangle -> rectangle.area();
+            case Circle circle -> circle.area();
+            case Square square -> square.area();
+            case Triangle triangle -> triangle.area();
+            case Ellipse ellipse -> ellipse.area();
+            case Trapezoid trapezoid -> trapezoid.area();
+            case Parallelogram parallelogram -> parallelogram.area();
+            case RegularPolygon polygon -> polygon.area();
+            case CustomShape other -> other.area();
+        };
+    }
+
+    /**
+     * Total area of a mixed collection: the shapes are first bucketed by concrete type, then each bucket is
+     * summed in its own monomorphic loop (see ShapeBuckets).
+     */
+    public double calculateTotalAreaBucketed(Iterable<? extends Shape> shapes) {
+        return ShapeBuckets.of(shapes).totalArea();
+    }
+
+    /**
+     * Areas of many shapes at once, in list order. The shapes are packed into primitive arrays by type
+     * (see ShapeBatch) and computed with the fastest available AreaKernel, SIMD when possible.
+     * To compute the areas of the same shapes repeatedly, build the ShapeBatch once and reuse it.
+     */
+    public double[] calculateAreas(List<? extends Shape> shapes) {
+        return ShapeBatch.of(shapes).areas();
+    }
+
+    public double calculateTotalArea(List<? extends Shape> shapes) {
+        return ShapeBatch.of(shapes).totalArea();
+    }
+
+    /**
+     * Adds the shape to the running total. Returns false if it was already registered.
+     */
+    public boolean register(Shape shape) {
+        if (!registered.add(shape)) {
+            return false;
+        }
+        add(shape.area());
+        if (shape instanceof AreaObservable observable) {
+            observable.addAreaListener(tracker);
+        }
+        return true;
+    }
+
+    public void registerAll(Iterable<? extends Shape> shapes) {
+        for (Shape shape : shapes) {
+            register(shape);
+        }
+    }
+
+    /**
+     * Removes the shape from the running total. Returns false if it was not registered.
+     */
+    public boolean unregister(Shape shape) {
+        if (!registered.remove(shape)) {
+            return false;
+        }
+        if (shape instanceof AreaObservable observable) {
+            observable.removeAreaListener(tracker);
+        }
+        remove(shape.area());
+        if (registered.isEmpty()) {
+            total = 0;
+            compensation = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Sum of the areas of all registered shapes, in O(1).
+     */
+    public double getRegisteredTotalArea() {
+        if (nanCount > 0 || positiveInfinityCount > 0 && negativeInfinityCount > 0) {
+            return Double.NaN;
+        }
+        if (positiveInfinityCount > 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (negativeInfinityCount > 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return total + compensation;
+    }
+
+    public int getRegisteredCount() {
+        return registered.size();
+    }
+
+    private void add(double area) {
+        if (Double.isFinite(area)) {
+            addToTotal(area);
+        } else {
+            countNonFinite(area, 1);
+        }
+    }
+
+    private void remove(double area) {
+        if (Double.isFinite(area)) {
+            addToTotal(-area);
+        } else {
+            countNonFinite(area, -1);
+        }
+    }
+
+    private void countNonFinite(double area, int delta) {
+        if (Double.isNaN(area)) {
+            nanCount += delta;
+        } else if (area > 0) {
+            positiveInfinityCount += delta;
+        } else {
+            negativeInfinityCount += delta;
+        }
+    }
+
+    private void addToTotal(double value) {
+        double sum = total + value;
+        if (Math.abs(total) >= Math.abs(value)) {
+            compensation += (total - sum) + value;
+        } else {
+            compensation += (value - sum) + total;
+        }
+        total = sum;
+    }
 }
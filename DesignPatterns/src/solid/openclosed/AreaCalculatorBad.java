@@ -8,6 +8,27 @@ public class AreaCalculatorBad {
         } else if (shape instanceof Circle) {
             Circle circle = (Circle) shape;
             return Math.PI * circle.getRadius() * circle.getRadius();
+        } else if (shape instanceof Square) {
+            Square square = (Square) shape;
+            return square.getSide() * square.getSide();
+        } else if (shape instanceof Triangle) {
+            Triangle triangle = (Triangle) shape;
+            return 0.5 * triangle.getBase() * triangle.getHeight();
+        } else if (shape instanceof Ellipse) {
+            Ellipse ellipse = (Ellipse) shape;
+            return Math.PI * ellipse.getSemiMajorAxis() * ellipse.getSemiMinorAxis();
+        } else if (shape instanceof Trapezoid) {
+            Trapezoid trapezoid = (Trapezoid) shape;
+            return (trapezoid.getBase1() + trapezoid.getBase2()) / 2 * trapezoid.getHeight();
+        } else if (shape instanceof Parallelogram) {
+            Parallelogram parallelogram = (Parallelogram) shape;
+            return parallelogram.getBase() * parallelogram.getHeight();
+        } else if (shape instanceof RegularPolygon) {
+            // Every new shape type means another branch here, and every shape pays for the checks before its own.
+            RegularPolygon polygon = (RegularPolygon) shape;
+            int sides = polygon.getSides();
+            double side = polygon.getSideLength();
+            return sides * side * side / (4 * Math.tan(Math.PI / sides));
         } else {
             throw new IllegalArgumentException("Unsupported shape type");
         }
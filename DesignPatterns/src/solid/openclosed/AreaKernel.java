@@ -0,0 +1,32 @@
+package solid.openclosed;
+
+/**
+ * The arithmetic of the bulk area computation, on primitive arrays only.
+ * ScalarAreaKernel is a plain loop; VectorAreaKernel does the same work several lanes at a time with the
+ * jdk.incubator.vector API. Both compute every single area exactly like Rectangle.area() and Circle.area()
+ * (same operations in the same order), only the sums may differ in the last bits because SIMD adds the lanes in a
+ * different order.
+ */
+public interface AreaKernel {
+    /**
+     * out[i] = lengths[i] * widths[i] for i in [0, count)
+     */
+    void rectangleAreas(double[] lengths, double[] widths, double[] out, int count);
+
+    /**
+     * out[i] = PI * radii[i] * radii[i] for i in [0, count)
+     */
+    void circleAreas(double[] radii, double[] out, int count);
+
+    double sumRectangleAreas(double[] lengths, double[] widths, int count);
+
+    double sumCircleAreas(double[] radii, int count);
+
+    /**
+     * The fastest kernel this JVM can run: VectorAreaKernel when the jdk.incubator.vector module is available
+     * (run with --add-modules jdk.incubator.vector), ScalarAreaKernel otherwise.
+     */
+    static AreaKernel best() {
+        return AreaKernels.BEST;
+    }
+}
@@ -0,0 +1,9 @@
+package solid.openclosed;
+
+/**
+ * Notified after the area of a mutable shape changed, e.g. through Circle.setRadius().
+ */
+@FunctionalInterface
+public interface AreaListener {
+    void areaChanged(Shape shape, double oldArea, double newArea);
+}
@@ -0,0 +1,49 @@
+package solid.openclosed;
+
+import java.util.Arrays;
+
+/**
+ * The listeners of one shape. A shape holds null until the first listener is added, so shapes that nobody
+ * observes pay one field and nothing else.
+ */
+final class AreaListeners {
+    private AreaListener[] listeners = new AreaListener[0];
+
+    static AreaListeners add(AreaListeners listeners, AreaListener listener) {
+        AreaListeners result = listeners == null ? new AreaListeners() : listeners;
+        result.listeners = Arrays.copyOf(result.listeners, result.listeners.length + 1);
+        result.listeners[result.listeners.length - 1] = listener;
+        return result;
+    }
+
+    static AreaListeners remove(AreaListeners listeners, AreaListener listener) {
+        if (listeners == null) {
+            return null;
+        }
+        AreaListener[] current = listeners.listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                if (current.length == 1) {
+                    return null;
+                }
+                AreaListener[] next = new AreaListener[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                listeners.listeners = next;
+                break;
+            }
+        }
+        return listeners;
+    }
+
+    void fire(Shape shape, double oldArea) {
+        double newArea = shape.area();
+        if (Double.compare(oldArea, newArea) == 0) {
+            return;
+        }
+        // Iterate a snapshot: a listener may remove itself while being notified.
+        for (AreaListener listener : listeners) {
+            listener.areaChanged(shape, oldArea, newArea);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package solid.openclosed;
+
+/**
+ * A mutable shape that reports changes of its area to registered AreaListeners.
+ * Circle and Rectangle implement it; a mutable CustomShape can implement it too, so that
+ * AreaCalculator.register() tracks it like the built-in shapes.
+ */
+public interface AreaObservable {
+    void addAreaListener(AreaListener listener);
+
+    void removeAreaListener(AreaListener listener);
+}
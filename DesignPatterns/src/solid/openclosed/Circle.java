@@ -1,7 +1,14 @@
 package solid.openclosed;
 
-public class Circle implements Shape{
+/**
+ * A circle whose area is computed once and cached until setRadius() changes it.
+ * Not thread-safe: like any mutable shape, share it between threads only with external synchronisation.
+ */
+public final class Circle implements Shape, AreaObservable {
     private double radius;
+    // NaN marks the cache as invalid; NaN != NaN, so a NaN radius simply recomputes every time.
+    private double area = Double.NaN;
+    private AreaListeners listeners;
 
     public Circle(double radius) {
         this.radius = radius;
@@ -9,7 +16,12 @@ public class Circle implements Shape{
 
     @Override
     public double area() {
-        return Math.PI * radius * radius;
+        double cached = area;
+        if (cached != cached) {
+            cached = Math.PI * radius * radius;
+            area = cached;
+        }
+        return cached;
     }
 
     public double getRadius() {
@@ -17,6 +29,21 @@ public class Circle implements Shape{
     }
 
     public void setRadius(double radius) {
+        double oldArea = listeners == null ? 0 : area();
         this.radius = radius;
+        area = Double.NaN;
+        if (listeners != null) {
+            listeners.fire(this, oldArea);
+        }
+    }
+
+    @Override
+    public void addAreaListener(AreaListener listener) {
+        listeners = AreaListeners.add(listeners, listener);
+    }
+
+    @Override
+    public void removeAreaListener(AreaListener listener) {
+        listeners = AreaListeners.remove(listeners, listener);
     }
 }
@@ -0,0 +1,7 @@
+package solid.openclosed;
+
+/**
+ * The extension point of the sealed Shape hierarchy: any new shape implements this interface.
+ */
+public non-sealed interface CustomShape extends Shape {
+}
@@ -0,0 +1,24 @@
+package solid.openclosed;
+
+public final class Ellipse implements Shape {
+    private final double semiMajorAxis;
+    private final double semiMinorAxis;
+
+    public Ellipse(double semiMajorAxis, double semiMinorAxis) {
+        this.semiMajorAxis = semiMajorAxis;
+        this.semiMinorAxis = semiMinorAxis;
+    }
+
+    @Override
+    public double area() {
+        return Math.PI * semiMajorAxis * semiMinorAxis;
+    }
+
+    public double getSemiMajorAxis() {
+        return semiMajorAxis;
+    }
+
+    public double getSemiMinorAxis() {
+        return semiMinorAxis;
+    }
+}
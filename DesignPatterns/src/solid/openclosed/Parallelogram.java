@@ -0,0 +1,24 @@
+package solid.openclosed;
+
+public final class Parallelogram implements Shape {
+    private final double base;
+    private final double height;
+
+    public Parallelogram(double base, double height) {
+        this.base = base;
+        this.height = height;
+    }
+
+    @Override
+    public double area() {
+        return base * height;
+    }
+
+    public double getBase() {
+        return base;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+}
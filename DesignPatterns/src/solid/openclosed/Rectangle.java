@@ -1,8 +1,15 @@
 package solid.openclosed;
 
-public class Rectangle implements Shape{
+/**
+ * A rectangle whose area is computed once and cached until setLength() or setWidth() changes it.
+ * Not thread-safe: like any mutable shape, share it between threads only with external synchronisation.
+ */
+public final class Rectangle implements Shape, AreaObservable {
     private double length;
     private double width;
+    // NaN marks the cache as invalid; NaN != NaN, so NaN dimensions simply recompute every time.
+    private double area = Double.NaN;
+    private AreaListeners listeners;
 
     public Rectangle(double length, double width) {
         this.length = length;
@@ -11,7 +18,12 @@ public class Rectangle implements Shape{
 
     @Override
     public double area() {
-        return length * width;
+        double cached = area;
+        if (cached != cached) {
+            cached = length * width;
+            area = cached;
+        }
+        return cached;
     }
 
     public double getLength() {
@@ -19,7 +31,9 @@ public class Rectangle implements Shape{
     }
 
     public void setLength(double length) {
+        double oldArea = listeners == null ? 0 : area();
         this.length = length;
+        changed(oldArea);
     }
 
     public double getWidth() {
@@ -27,6 +41,25 @@ public class Rectangle implements Shape{
     }
 
     public void setWidth(double width) {
+        double oldArea = listeners == null ? 0 : area();
         this.width = width;
+        changed(oldArea);
+    }
+
+    private void changed(double oldArea) {
+        area = Double.NaN;
+        if (listeners != null) {
+            listeners.fire(this, oldArea);
+        }
+    }
+
+    @Override
+    public void addAreaListener(AreaListener listener) {
+        listeners = AreaListeners.add(listeners, listener);
+    }
+
+    @Override
+    public void removeAreaListener(AreaListener listener) {
+        listeners = AreaListeners.remove(listeners, listener);
     }
 }
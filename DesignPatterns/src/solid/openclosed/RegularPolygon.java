@@ -0,0 +1,30 @@
+package solid.openclosed;
+
+/**
+ * A polygon with equal sides and equal angles, e.g. a hexagon.
+ */
+public final class RegularPolygon implements Shape {
+    private final int sides;
+    private final double sideLength;
+
+    public RegularPolygon(int sides, double sideLength) {
+        if (sides < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 sides: " + sides);
+        }
+        this.sides = sides;
+        this.sideLength = sideLength;
+    }
+
+    @Override
+    public double area() {
+        return sides * sideLength * sideLength / (4 * Math.tan(Math.PI / sides));
+    }
+
+    public int getSides() {
+        return sides;
+    }
+
+    public double getSideLength() {
+        return sideLength;
+    }
+}
@@ -0,0 +1,38 @@
+package solid.openclosed;
+
+/**
+ * The portable AreaKernel: simple counted loops over the primitive arrays.
+ */
+public class ScalarAreaKernel implements AreaKernel {
+    @Override
+    public void rectangleAreas(double[] lengths, double[] widths, double[] out, int count) {
+        for (int i = 0; i < count; i++) {
+            out[i] = lengths[i] * widths[i];
+        }
+    }
+
+    @Override
+    public void circleAreas(double[] radii, double[] out, int count) {
+        for (int i = 0; i < count; i++) {
+            out[i] = Math.PI * radii[i] * radii[i];
+        }
+    }
+
+    @Override
+    public double sumRectangleAreas(double[] lengths, double[] widths, int count) {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += lengths[i] * widths[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double sumCircleAreas(double[] radii, int count) {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += Math.PI * radii[i] * radii[i];
+        }
+        return sum;
+    }
+}
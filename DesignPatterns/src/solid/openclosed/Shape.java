@@ -1,5 +1,13 @@
 package solid.openclosed;
 
-public interface Shape {
+/**
+ * A shape with an area.
+ * The interface is sealed: the common shapes are listed here, so code like AreaCalculator.calculateAreaSwitch() can
+ * switch over them exhaustively and the JIT gets one concrete, final class per branch instead of a megamorphic
+ * interface call. It is still open for extension: a new shape implements CustomShape, which is non-sealed,
+ * and is handled through its own area() without changing this interface or AreaCalculator.
+ */
+public sealed interface Shape
+        permits Rectangle, Circle, Square, Triangle, Ellipse, Trapezoid, Parallelogram, RegularPolygon, CustomShape {
     public abstract double area();
 }
@@ -0,0 +1,120 @@
+package solid.openclosed;
+
+import java.util.List;
+
+/**
+ * Shapes packed into per-type primitive arrays for bulk area computation.
+ * Calling area() on a million Shape objects means a million virtual calls and a million objects to follow in
+ * memory. A batch copies the dimensions once: rectangle lengths and widths into two double[], circle radii into
+ * another, so the areas can be computed by an AreaKernel in tight loops (SIMD when available).
+ * Shapes of any other type are kept as objects and use their own area().
+ * A batch is a snapshot: changing a shape after of() does not change the batch.
+ */
+public class ShapeBatch {
+    private final int size;
+    private final double[] lengths;
+    private final double[] widths;
+    private final int[] rectangleIndexes;
+    private final int rectangleCount;
+    private final double[] radii;
+    private final int[] circleIndexes;
+    private final int circleCount;
+    private final Shape[] others;
+    private final int[] otherIndexes;
+    private final int otherCount;
+
+    private ShapeBatch(List<? extends Shape> shapes) {
+        size = shapes.size();
+        int rectangles = 0;
+        int circles = 0;
+        for (Shape shape : shapes) {
+            if (shape instanceof Rectangle) {
+                rectangles++;
+            } else if (shape instanceof Circle) {
+                circles++;
+            }
+        }
+        lengths = new double[rectangles];
+        widths = new double[rectangles];
+        rectangleIndexes = new int[rectangles];
+        radii = new double[circles];
+        circleIndexes = new int[circles];
+        others = new Shape[size - rectangles - circles];
+        otherIndexes = new int[others.length];
+        int r = 0;
+        int c = 0;
+        int o = 0;
+        int index = 0;
+        for (Shape shape : shapes) {
+            // Rectangle and Circle are final, so the kernel's formulas are exactly their area().
+            if (shape instanceof Rectangle rectangle) {
+                lengths[r] = rectangle.getLength();
+                widths[r] = rectangle.getWidth();
+                rectangleIndexes[r++] = index;
+            } else if (shape instanceof Circle circle) {
+                radii[c] = circle.getRadius();
+                circleIndexes[c++] = index;
+            } else {
+                others[o] = shape;
+                otherIndexes[o++] = index;
+            }
+            index++;
+        }
+        rectangleCount = r;
+        circleCount = c;
+        otherCount = o;
+    }
+
+    public static ShapeBatch of(List<? extends Shape> shapes) {
+        return new ShapeBatch(shapes);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Area of every shape, in the order of the list the batch was built from.
+     */
+    public double[] areas(AreaKernel kernel) {
+        double[] areas = new double[size];
+        double[] scratch = new double[Math.max(rectangleCount, circleCount)];
+        kernel.rectangleAreas(lengths, widths, scratch, rectangleCount);
+        for (int i = 0; i < rectangleCount; i++) {
+            areas[rectangleIndexes[i]] = scratch[i];
+        }
+        kernel.circleAreas(radii, scratch, circleCount);
+        for (int i = 0; i < circleCount; i++) {
+            areas[circleIndexes[i]] = scratch[i];
+        }
+        for (int i = 0; i < otherCount; i++) {
+            areas[otherIndexes[i]] = others[i].area();
+        }
+        return areas;
+    }
+
+    /**
+     * Sum of all areas, without materialising the per-shape array.
+     */
+    public double totalArea(AreaKernel kernel) {
+        double total = kernel.sumRectangleAreas(lengths, widths, rectangleCount)
+                + kernel.sumCircleAreas(radii, circleCount);
+        for (int i = 0; i < otherCount; i++) {
+            total += others[i].area();
+        }
+        return total;
+    }
+
+    public double[] areas() {
+        return areas(AreaKernel.best());
+    }
+
+    public double totalArea() {
+        return totalArea(AreaKernel.best());
+    }
+
+    @Override
+    public String toString() {
+        return "ShapeBatch{rectangles=" + rectangleCount + ", circles=" + circleCount + ", others=" + otherCount + '}';
+    }
+}
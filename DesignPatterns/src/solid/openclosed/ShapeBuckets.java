@@ -0,0 +1,84 @@
+package solid.openclosed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shapes grouped by concrete type, for computing a total area with one monomorphic loop per type.
+ * In a single loop over mixed shapes, the shape.area() call site sees every shape type, so once there are more
+ * than two types the JIT stops inlining it and every call becomes a virtual dispatch. Here every type has its own
+ * loop over a list of that exact final class, so each area() call site only ever sees one class and is inlined.
+ * Shapes implementing CustomShape go into one more bucket that still uses virtual calls.
+ * The buckets are a snapshot of the collection they were built from.
+ */
+public class ShapeBuckets {
+    private final List<Rectangle> rectangles = new ArrayList<>();
+    private final List<Circle> circles = new ArrayList<>();
+    private final List<Square> squares = new ArrayList<>();
+    private final List<Triangle> triangles = new ArrayList<>();
+    private final List<Ellipse> ellipses = new ArrayList<>();
+    private final List<Trapezoid> trapezoids = new ArrayList<>();
+    private final List<Parallelogram> parallelograms = new ArrayList<>();
+    private final List<RegularPolygon> polygons = new ArrayList<>();
+    private final List<CustomShape> custom = new ArrayList<>();
+
+    public static ShapeBuckets of(Iterable<? extends Shape> shapes) {
+        ShapeBuckets buckets = new ShapeBuckets();
+        for (Shape shape : shapes) {
+            buckets.add(shape);
+        }
+        return buckets;
+    }
+
+    public void add(Shape shape) {
+        switch (shape) {
+            case Rectangle rectangle -> rectangles.add(rectangle);
+            case Circle circle -> circles.add(circle);
+            case Square square -> squares.add(square);
+            case Triangle triangle -> triangles.add(triangle);
+            case Ellipse ellipse -> ellipses.add(ellipse);
+            case Trapezoid trapezoid -> trapezoids.add(trapezoid);
+            case Parallelogram parallelogram -> parallelograms.add(parallelogram);
+            case RegularPolygon polygon -> polygons.add(polygon);
+            case CustomShape other -> custom.add(other);
+        }
+    }
+
+    public double totalArea() {
+        // Deliberately one loop per type: a shared helper method would give all types one call site again.
+        double total = 0;
+        for (Rectangle rectangle : rectangles) {
+            total += rectangle.area();
+        }
+        for (Circle circle : circles) {
+            total += circle.area();
+        }
+        for (Square square : squares) {
+            total += square.area();
+        }
+        for (Triangle triangle : triangles) {
+            total += triangle.area();
+        }
+        for (Ellipse ellipse : ellipses) {
+            total += ellipse.area();
+        }
+        for (Trapezoid trapezoid : trapezoids) {
+            total += trapezoid.area();
+        }
+        for (Parallelogram parallelogram : parallelograms) {
+            total += parallelogram.area();
+        }
+        for (RegularPolygon polygon : polygons) {
+            total += polygon.area();
+        }
+        for (CustomShape shape : custom) {
+            total += shape.area();
+        }
+        return total;
+    }
+
+    public int size() {
+        return rectangles.size() + circles.size() + squares.size() + triangles.size() + ellipses.size()
+                + trapezoids.size() + parallelograms.size() + polygons.size() + custom.size();
+    }
+}
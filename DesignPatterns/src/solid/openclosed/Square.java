@@ -0,0 +1,18 @@
+package solid.openclosed;
+
+public final class Square implements Shape {
+    private final double side;
+
+    public Square(double side) {
+        this.side = side;
+    }
+
+    @Override
+    public double area() {
+        return side * side;
+    }
+
+    public double getSide() {
+        return side;
+    }
+}
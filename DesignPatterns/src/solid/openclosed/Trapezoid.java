@@ -0,0 +1,30 @@
+package solid.openclosed;
+
+public final class Trapezoid implements Shape {
+    private final double base1;
+    private final double base2;
+    private final double height;
+
+    public Trapezoid(double base1, double base2, double height) {
+        this.base1 = base1;
+        this.base2 = base2;
+        this.height = height;
+    }
+
+    @Override
+    public double area() {
+        return (base1 + base2) / 2 * height;
+    }
+
+    public double getBase1() {
+        return base1;
+    }
+
+    public double getBase2() {
+        return base2;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+}
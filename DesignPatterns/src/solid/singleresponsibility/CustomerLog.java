@@ -0,0 +1,408 @@
+package solid.singleresponsibility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.zip.CRC32C;
+
+
+/**
+ * An append-only binary log of customer changes, written through a memory-mapped file.
+ * Instead of re-serialising every customer on every save, each change is appended as one small record:
+ *  [int length][int crc32c][byte type][int nameLength][name utf-8][int emailLength][email utf-8]
+ * (a REMOVE record carries only the email). The file starts with an 8 byte header: the magic "CLOG" and a version.
+ * Writing: records are put straight into a MappedByteBuffer, so an append is a memory copy and no system call.
+ * Durability: sync(position) makes everything up to position durable with MappedByteBuffer.force(). Callers that
+ * arrive while a force() is running wait for it and usually find their record already covered, so one force()
+ * serves a whole group of writers (group commit).
+ * Recovery: open() maps the file and replays the records in place, reading lengths and checksums from the mapped
+ * bytes; only the final Strings are created. A torn last record (e.g. after a crash mid-write) fails its
+ * checksum, is dropped, and later appends overwrite it. A damaged record with valid records after it is not a torn
+ * write: open() fails with its offset and leaves the file untouched rather than silently dropping the rest.
+ * Compaction: rewrite() writes only the live customers to a new file and atomically renames it over the log.
+ * This class is thread-safe. Appends are serialised by the object lock; sync() only takes a separate force lock,
+ * so appends continue while a force() is in progress. close() and rewrite() take both locks. After close(),
+ * appends throw IllegalStateException.
+ */
+public class CustomerLog implements Closeable {
+    /**
+     * Receives the records of an existing log, in the order they were written.
+     */
+    public interface Visitor {
+        void put(String name, String email);
+
+        void remove(String email);
+    }
+
+    private static final int MAGIC = 0x434C4F47;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int MIN_MAPPED_BYTES = 1 << 20;
+
+    private final Path file;
+    private final Object forceLock = new Object();
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private volatile long written;
+    private volatile long durable;
+    private long records;
+
+    private CustomerLog(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens (or creates) the log at file for appending, skipping over its existing records.
+     */
+    public static CustomerLog open(Path file) {
+        return open(file, new Visitor() {
+            @Override
+            public void put(String name, String email) {
+            }
+
+            @Override
+            public void remove(String email) {
+            }
+        });
+    }
+
+    /**
+     * Opens (or creates) the log at file and replays its records into visitor.
+     */
+    public static CustomerLog open(Path file, Visitor visitor) {
+        CustomerLog log = new CustomerLog(file);
+        try {
+            log.openChannel();
+            log.replay(visitor);
+        } catch (IOException e) {
+            log.closeQuietly();
+            throw new UncheckedIOException("Could not open customer log " + file, e);
+        }
+        return log;
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        map(Math.max(size, MIN_MAPPED_BYTES));
+        if (size < HEADER_BYTES) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            written = HEADER_BYTES;
+        } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a customer log (version " + VERSION + ")");
+        }
+    }
+
+    private void map(long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Customer log " + file + " is larger than 2 GB; compact it more often");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void replay(Visitor visitor) throws IOException {
+        if (written == HEADER_BYTES) {
+            return;
+        }
+        byte[] scratch = new byte[256];
+        CRC32C crc = new CRC32C();
+        int position = HEADER_BYTES;
+        int limit = buffer.capacity();
+        while (isRecord(position, limit, crc)) {
+            int length = buffer.getInt(position);
+            int payload = position + RECORD_HEADER_BYTES;
+            byte type = buffer.get(payload);
+            int cursor = payload + 1;
+            if (type == PUT) {
+                int nameLength = buffer.getInt(cursor);
+                cursor += 4;
+                if (nameLength > scratch.length) {
+                    scratch = new byte[nameLength];
+                }
+                String name = null;
+                if (nameLength >= 0) {
+                    buffer.get(cursor, scratch, 0, nameLength);
+                    name = new String(scratch, 0, nameLength, StandardCharsets.UTF_8);
+                    cursor += nameLength;
+                }
+                int emailLength = buffer.getInt(cursor);
+                if (emailLength > scratch.length) {
+                    scratch = new byte[emailLength];
+                }
+                buffer.get(cursor + 4, scratch, 0, emailLength);
+                visitor.put(name, new String(scratch, 0, emailLength, StandardCharsets.UTF_8));
+            } else {
+                int emailLength = buffer.getInt(cursor);
+                if (emailLength > scratch.length) {
+                    scratch = new byte[emailLength];
+                }
+                buffer.get(cursor + 4, scratch, 0, emailLength);
+                visitor.remove(new String(scratch, 0, emailLength, StandardCharsets.UTF_8));
+            }
+            records++;
+            position = payload + length;
+        }
+        int dataEnd = dataEnd(position, limit);
+        if (position < dataEnd) {
+            // Only the last record may be damaged: that is a write torn by a crash before its sync(). A valid
+            // record further on means the damage is in the middle of the log, and dropping the tail would silently
+            // lose every customer written after it, so the bytes are left alone and open() fails instead.
+            for (int next = position + 1; next < dataEnd; next++) {
+                if (isRecord(next, limit, crc)) {
+                    throw new IOException("Customer log " + file + " is corrupt at offset " + position
+                            + ": valid records follow at offset " + next);
+                }
+            }
+            // Zero the torn record so that none of it can be mistaken for records after the next append, and make
+            // that durable first: sync() only forces what is appended from here on.
+            for (int i = position; i < dataEnd; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force(position, dataEnd - position);
+        }
+        // A cleanly closed log has no tail: close() truncates the file to its last record.
+        written = position;
+        durable = position;
+    }
+
+    /**
+     * True when a complete record with a matching checksum and a known type starts at position.
+     */
+    private boolean isRecord(int position, int limit, CRC32C crc) {
+        if (position + RECORD_HEADER_BYTES > limit) {
+            return false;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || length > limit - position - RECORD_HEADER_BYTES) {
+            return false;
+        }
+        int payload = position + RECORD_HEADER_BYTES;
+        byte type = buffer.get(payload);
+        if (type != PUT && type != REMOVE) {
+            return false;
+        }
+        crc.reset();
+        crc.update(buffer.slice(payload, length));
+        return (int) crc.getValue() == buffer.getInt(position + 4);
+    }
+
+    /**
+     * The end of the last non-zero byte at or after from; the mapping beyond the file is zero-filled.
+     */
+    private int dataEnd(int from, int limit) {
+        int end = limit;
+        while (end - Long.BYTES >= from && buffer.getLong(end - Long.BYTES) == 0) {
+            end -= Long.BYTES;
+        }
+        while (end > from && buffer.get(end - 1) == 0) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Appends a PUT record for the customer and returns the log position just after it (for sync()).
+     */
+    public synchronized long appendPut(Customer customer) {
+        if (customer.getEmail() == null) {
+            throw new IllegalArgumentException("Customer email is required");
+        }
+        byte[] name = customer.getName() == null ? null : customer.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] email = customer.getEmail().getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 4 + (name == null ? 0 : name.length) + 4 + email.length;
+        int position = reserve(length);
+        int cursor = position + RECORD_HEADER_BYTES;
+        buffer.put(cursor++, PUT);
+        buffer.putInt(cursor, name == null ? -1 : name.length);
+        cursor += 4;
+        if (name != null) {
+            buffer.put(cursor, name);
+            cursor += name.length;
+        }
+        buffer.putInt(cursor, email.length);
+        buffer.put(cursor + 4, email);
+        return seal(position, length);
+    }
+
+    /**
+     * Appends a REMOVE record for the email and returns the log position just after it (for sync()).
+     */
+    public synchronized long appendRemove(String email) {
+        if (email == null) {
+            throw new IllegalArgumentException("Customer email is required");
+        }
+        byte[] bytes = email.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 4 + bytes.length;
+        int position = reserve(length);
+        int cursor = position + RECORD_HEADER_BYTES;
+        buffer.put(cursor++, REMOVE);
+        buffer.putInt(cursor, bytes.length);
+        buffer.put(cursor + 4, bytes);
+        return seal(position, length);
+    }
+
+    private int reserve(int length) {
+        if (channel == null) {
+            throw new IllegalStateException("Customer log " + file + " is closed");
+        }
+        long end = written + RECORD_HEADER_BYTES + length;
+        // Keep room for a zero length after the last record, which marks the end of the log.
+        if (end + RECORD_HEADER_BYTES > buffer.capacity()) {
+            try {
+                map(Math.max(2L * buffer.capacity(), end + RECORD_HEADER_BYTES));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not grow customer log " + file, e);
+            }
+        }
+        return (int) written;
+    }
+
+    private long seal(int position, int length) {
+        int payload = position + RECORD_HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(payload, length));
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // The length goes last: a record is only visible to replay() once it is complete.
+        buffer.putInt(position, length);
+        records++;
+        written = payload + length;
+        return written;
+    }
+
+    /**
+     * Makes the log durable at least up to position. Concurrent callers share a single force().
+     * After close() every position that was appended is already durable, so a late sync() simply returns.
+     */
+    public void sync(long position) {
+        if (durable >= position) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durable >= position) {
+                return;
+            }
+            if (buffer == null) {
+                throw new IllegalStateException("Customer log " + file + " is closed");
+            }
+            // No lock on this here: appends keep going while force() runs. written is read before buffer, so
+            // a buffer replaced by a concurrent remap still covers [durable, end).
+            long end = written;
+            MappedByteBuffer target = buffer;
+            long from = durable;
+            target.force((int) from, (int) (end - from));
+            durable = end;
+        }
+    }
+
+    /**
+     * Makes everything appended so far durable.
+     */
+    public void sync() {
+        sync(written);
+    }
+
+    /**
+     * Replaces the log with one PUT record per live customer, then keeps appending to the new file.
+     */
+    public synchronized void rewrite(Collection<Customer> customers) {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try {
+            try (CustomerLog copy = new CustomerLog(compacted)) {
+                Files.deleteIfExists(compacted);
+                copy.openChannel();
+                for (Customer customer : customers) {
+                    copy.appendPut(customer);
+                }
+                copy.sync();
+            }
+            synchronized (forceLock) {
+                closeChannel();
+                Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                records = 0;
+                written = 0;
+                durable = 0;
+                openChannel();
+                replay(new Visitor() {
+                    @Override
+                    public void put(String name, String email) {
+                        // the live customers are already in memory
+                    }
+
+                    @Override
+                    public void remove(String email) {
+                        // a compacted log has no REMOVE records
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact customer log " + file, e);
+        }
+    }
+
+    /**
+     * Bytes used by records, including the file header.
+     */
+    public long size() {
+        return written;
+    }
+
+    public synchronized long records() {
+        return records;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        // Under the force lock, like rewrite(): a sync() that runs outside the object lock either finishes its
+        // force() before the buffer goes away or finds everything durable afterwards.
+        synchronized (forceLock) {
+            sync();
+            try {
+                closeChannel();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not close customer log " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Trims the zero-filled mapped tail so the file on disk is exactly as long as its records.
+     */
+    private void closeChannel() throws IOException {
+        buffer = null;
+        try {
+            channel.truncate(written);
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ignored) {
+            // already failing
+        }
+    }
+}
@@ -1,26 +1,30 @@
 package solid.singleresponsibility;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 
 /**
  * This class has single responsibility of performing CRUD operations for the Customer.
  * CustomerRepository is responsible for managing the persistence of customers.
  * Each class has only one responsibility, and if one of them changes, it won't affect the other.
+ * It is an interface so that how customers are stored (a plain list, hash indexes, a file) can change
+ * without CustomerService having to change:
+ *  ListCustomerRepository    - a list scanned on every lookup, guarded by a single lock.
+ *  IndexedCustomerRepository - hash indexes on email and name, lock-free reads, safe for many threads.
+ * A customer is identified by its email: adding a customer with an email that is already stored replaces it.
  */
-public class CustomerRepository {
-    private List<Customer> customers;
+public interface CustomerRepository {
+    List<Customer> getCustomers();
 
-    public CustomerRepository() {
-        customers = new ArrayList<>();
-    }
+    void addCustomer(Customer customer);
 
-    public List<Customer> getCustomers() {
-        return customers;
-    }
+    Optional<Customer> findByEmail(String email);
 
-    public void addCustomer(Customer customer) {
-        customers.add(customer);
-    }
+    List<Customer> findByName(String name);
+
+    /**
+     * Removes the customer with the given email and returns it, if there was one.
+     */
+    Optional<Customer> removeByEmail(String email);
 }
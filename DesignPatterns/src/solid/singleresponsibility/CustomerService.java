@@ -1,6 +1,7 @@
 package solid.singleresponsibility;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * CustomerService is responsible for managing customers.
@@ -20,5 +21,17 @@ public class CustomerService {
     public void addCustomer(Customer customer) {
         repository.addCustomer(customer);
     }
+
+    public Optional<Customer> findByEmail(String email) {
+        return repository.findByEmail(email);
+    }
+
+    public List<Customer> findByName(String name) {
+        return repository.findByName(name);
+    }
+
+    public Optional<Customer> removeByEmail(String email) {
+        return repository.removeByEmail(email);
+    }
 }
 
@@ -1,7 +1,13 @@
 package solid.singleresponsibility;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 
 /**
@@ -9,23 +15,84 @@ import java.util.List;
  * If the requirements change, and we need to change the way customers are saved to a database,
  * we will have to modify CustomerService, which violates the SRP. It would be better to move
  * the responsibility of saving customers to a separate class that specializes in this task.
+ * (That class is LoggedCustomerRepository: CustomerService + LoggedCustomerRepository do the same job with one
+ * responsibility each.)
  */
-public class CustomerServiceBad {
+public class CustomerServiceBad implements Closeable {
     private List<Customer> customers;
+    private Path file;
+    private int savedCount;
+    private CustomerLog log;
 
+    /**
+     * Saves to a new temp file, created on the first save (see getFile()), never to the working directory.
+     */
     public CustomerServiceBad() {
         customers = new ArrayList<>();
     }
 
+    public CustomerServiceBad(Path file) {
+        customers = new ArrayList<>();
+        this.file = Objects.requireNonNull(file, "file");
+    }
+
+    /**
+     * The file customers are saved to, or null when the service uses a temp file that was not created yet.
+     */
+    public Path getFile() {
+        return file;
+    }
+
     public List<Customer> getCustomers() {
         return customers;
     }
 
     public void addCustomer(Customer customer) {
+        requireEmail(customer);
         customers.add(customer);
     }
 
+    /**
+     * Appends the customers added since the last save to an append-only CustomerLog, instead of writing the
+     * whole list again, and waits until they are on disk. Every unsaved customer is checked before the first one is
+     * written, so a customer without an email (e.g. one whose email was cleared after addCustomer()) fails the save
+     * without writing part of it.
+     */
     public void saveCustomersToFile() {
-        // code to save customers to a file
+        for (int i = savedCount; i < customers.size(); i++) {
+            requireEmail(customers.get(i));
+        }
+        if (log == null) {
+            if (file == null) {
+                file = createTempFile();
+            }
+            log = CustomerLog.open(file);
+        }
+        for (; savedCount < customers.size(); savedCount++) {
+            log.appendPut(customers.get(savedCount));
+        }
+        log.sync();
+    }
+
+    private static void requireEmail(Customer customer) {
+        if (customer.getEmail() == null) {
+            throw new IllegalArgumentException("Customer email is required: " + customer);
+        }
+    }
+
+    private static Path createTempFile() {
+        try {
+            return Files.createTempFile("customers-", ".log");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a temp file for the customers", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
     }
 }
@@ -0,0 +1,122 @@
+package solid.singleresponsibility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * A CustomerRepository for many customers and many threads.
+ * Customers are kept in a ConcurrentHashMap keyed by email, so findByEmail() is an O(1) hash lookup instead of a
+ * scan, and a second map from name to the set of customers with that name answers findByName() the same way.
+ * Concurrency:
+ *  - reads (findByEmail, findByName, getCustomers) take no locks at all.
+ *  - writes lock only the hash bin of the email they change (ConcurrentHashMap.compute), so writers on different
+ *    emails run in parallel. The name index is updated inside that same compute() call, which means two writers
+ *    on the same email can never leave the two indexes disagreeing.
+ * The indexes are built from the email and name at the time addCustomer() is called. A customer whose email or
+ * name is changed through its setters afterwards has to be added again to be found under the new values. The name
+ * it was indexed under is kept next to it, so adding it again or removing it always clears the old name entry.
+ */
+public class IndexedCustomerRepository implements CustomerRepository {
+    private final ConcurrentHashMap<String, Indexed> byEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<Customer>> byName = new ConcurrentHashMap<>();
+
+    /**
+     * A snapshot copy in no particular order; changes to it do not affect the repository.
+     */
+    @Override
+    public List<Customer> getCustomers() {
+        List<Customer> customers = new ArrayList<>(byEmail.size());
+        for (Indexed indexed : byEmail.values()) {
+            customers.add(indexed.customer());
+        }
+        return customers;
+    }
+
+    @Override
+    public void addCustomer(Customer customer) {
+        String email = requireEmail(customer.getEmail());
+        byEmail.compute(email, (key, previous) -> {
+            if (previous != null) {
+                unindexName(previous);
+            }
+            // Read the name once: it is both indexed and recorded, and a concurrent setName() must not split them.
+            String name = customer.getName();
+            if (name != null) {
+                // compute() rather than computeIfAbsent().add(): a concurrent unindexName() could otherwise drop
+                // the set between the two calls and the customer would be added to an orphaned set.
+                byName.compute(name, (ignored, customers) -> {
+                    Set<Customer> set = customers == null ? ConcurrentHashMap.newKeySet() : customers;
+                    set.add(customer);
+                    return set;
+                });
+            }
+            return new Indexed(customer, name);
+        });
+    }
+
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Indexed indexed = byEmail.get(email);
+        return indexed == null ? Optional.empty() : Optional.of(indexed.customer());
+    }
+
+    @Override
+    public List<Customer> findByName(String name) {
+        if (name == null) {
+            return List.of();
+        }
+        Set<Customer> customers = byName.get(name);
+        return customers == null ? List.of() : List.copyOf(customers);
+    }
+
+    @Override
+    public Optional<Customer> removeByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Customer[] removed = new Customer[1];
+        byEmail.computeIfPresent(email, (key, previous) -> {
+            unindexName(previous);
+            removed[0] = previous.customer();
+            return null;
+        });
+        return Optional.ofNullable(removed[0]);
+    }
+
+    public int size() {
+        return byEmail.size();
+    }
+
+    /**
+     * Removes the customer from the name it was indexed under, which may no longer be its current name.
+     */
+    private void unindexName(Indexed indexed) {
+        if (indexed.name() == null) {
+            return;
+        }
+        byName.computeIfPresent(indexed.name(), (name, customers) -> {
+            customers.remove(indexed.customer());
+            return customers.isEmpty() ? null : customers;
+        });
+    }
+
+    /**
+     * A stored customer and the name it was indexed under.
+     */
+    private record Indexed(Customer customer, String name) {
+    }
+
+    private static String requireEmail(String email) {
+        if (email == null) {
+            throw new IllegalArgumentException("Customer email is required");
+        }
+        return email;
+    }
+}
@@ -0,0 +1,55 @@
+package solid.singleresponsibility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+
+/**
+ * The simplest CustomerRepository: customers in an ArrayList, in the order they were added.
+ * Every lookup is a linear scan, and every method takes the same lock, so it is only suitable for small data
+ * sets or as a reference to compare other implementations against.
+ */
+public class ListCustomerRepository implements CustomerRepository {
+    private final List<Customer> customers;
+
+    public ListCustomerRepository() {
+        customers = new ArrayList<>();
+    }
+
+    /**
+     * A snapshot copy; changes to it do not affect the repository.
+     */
+    @Override
+    public synchronized List<Customer> getCustomers() {
+        return new ArrayList<>(customers);
+    }
+
+    @Override
+    public synchronized void addCustomer(Customer customer) {
+        customers.removeIf(existing -> Objects.equals(existing.getEmail(), customer.getEmail()));
+        customers.add(customer);
+    }
+
+    @Override
+    public synchronized Optional<Customer> findByEmail(String email) {
+        return customers.stream()
+                .filter(customer -> Objects.equals(customer.getEmail(), email))
+                .findFirst();
+    }
+
+    @Override
+    public synchronized List<Customer> findByName(String name) {
+        return customers.stream()
+                .filter(customer -> Objects.equals(customer.getName(), name))
+                .toList();
+    }
+
+    @Override
+    public synchronized Optional<Customer> removeByEmail(String email) {
+        Optional<Customer> customer = findByEmail(email);
+        customer.ifPresent(customers::remove);
+        return customer;
+    }
+}
@@ -0,0 +1,133 @@
+package solid.singleresponsibility;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+
+/**
+ * A CustomerRepository that survives restarts: an IndexedCustomerRepository in memory, plus a CustomerLog on disk
+ * that records every change.
+ * On construction the log is replayed to rebuild the in-memory indexes. After that:
+ *  - reads go to the in-memory indexes and never touch the file.
+ *  - writes append one record to the log and then update the indexes, under one lock so that the log order and
+ *    the in-memory order always agree. With syncEveryWrite the writer then waits until its record is durable;
+ *    concurrent writers share one force() (group commit), which happens outside the write lock.
+ *  - when the log grows past the compaction threshold it is rewritten with only the live customers, and the next
+ *    threshold becomes twice the compacted size, so compaction cost stays proportional to the churn.
+ * Responsibility for the file format stays in CustomerLog; this class only decides what to write and when.
+ */
+public class LoggedCustomerRepository implements CustomerRepository, Closeable {
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64L << 20;
+
+    private final IndexedCustomerRepository customers = new IndexedCustomerRepository();
+    private final CustomerLog log;
+    private final boolean syncEveryWrite;
+    private final long minCompactionThreshold;
+    private long compactionThreshold;
+
+    public LoggedCustomerRepository(Path file) {
+        this(file, true, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * @param syncEveryWrite      wait for every write to be on disk before returning (otherwise call sync())
+     * @param compactionThreshold log size in bytes that triggers the first compaction
+     */
+    public LoggedCustomerRepository(Path file, boolean syncEveryWrite, long compactionThreshold) {
+        this.syncEveryWrite = syncEveryWrite;
+        this.minCompactionThreshold = compactionThreshold;
+        this.compactionThreshold = compactionThreshold;
+        this.log = CustomerLog.open(file, new CustomerLog.Visitor() {
+            @Override
+            public void put(String name, String email) {
+                customers.addCustomer(new Customer(name, email));
+            }
+
+            @Override
+            public void remove(String email) {
+                customers.removeByEmail(email);
+            }
+        });
+    }
+
+    @Override
+    public List<Customer> getCustomers() {
+        return customers.getCustomers();
+    }
+
+    @Override
+    public void addCustomer(Customer customer) {
+        if (customer.getEmail() == null) {
+            throw new IllegalArgumentException("Customer email is required");
+        }
+        long position;
+        synchronized (this) {
+            position = log.appendPut(customer);
+            customers.addCustomer(customer);
+            compactIfNeeded();
+        }
+        if (syncEveryWrite) {
+            log.sync(position);
+        }
+    }
+
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+        return customers.findByEmail(email);
+    }
+
+    @Override
+    public List<Customer> findByName(String name) {
+        return customers.findByName(name);
+    }
+
+    @Override
+    public Optional<Customer> removeByEmail(String email) {
+        Optional<Customer> removed;
+        long position;
+        synchronized (this) {
+            removed = customers.removeByEmail(email);
+            if (removed.isEmpty()) {
+                return removed;
+            }
+            position = log.appendRemove(email);
+            compactIfNeeded();
+        }
+        if (syncEveryWrite) {
+            log.sync(position);
+        }
+        return removed;
+    }
+
+    /**
+     * Makes every write so far durable; only needed when syncEveryWrite is false.
+     */
+    public void sync() {
+        log.sync();
+    }
+
+    /**
+     * Rewrites the log with only the live customers.
+     */
+    public synchronized void compact() {
+        log.rewrite(customers.getCustomers());
+        compactionThreshold = Math.max(minCompactionThreshold, 2 * log.size());
+    }
+
+    private void compactIfNeeded() {
+        if (log.size() > compactionThreshold) {
+            compact();
+        }
+    }
+
+    public long logSize() {
+        return log.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        log.close();
+    }
+}
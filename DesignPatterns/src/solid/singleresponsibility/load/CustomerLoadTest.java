@@ -0,0 +1,121 @@
+package solid.singleresponsibility.load;
+
+import solid.singleresponsibility.IndexedCustomerRepository;
+import solid.singleresponsibility.ListCustomerRepository;
+import solid.singleresponsibility.LoggedCustomerRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs the same load against every CustomerRepository implementation and prints a LoadReport comparing them:
+ *      java -cp target/classes solid.singleresponsibility.load.CustomerLoadTest --threads 64 --virtual
+ * Options (defaults in brackets):
+ *      --threads N           load threads [processors]
+ *      --platform|--virtual  thread kind, or --both to run every implementation with each [platform]
+ *      --seconds S           measured time per implementation [10]
+ *      --warmup S            discarded warm-up time per implementation [2]
+ *      --interval S          throughput-over-time interval, may be fractional [1]
+ *      --mix a:e:n:g:r       weights of add:findByEmail:findByName:getCustomers:remove [10:80:9:1:0]
+ *      --customers N         customers added before the run [10000]
+ *      --names N             distinct names [1000]
+ *      --rate OPS            open loop at OPS calls per second in total; 0 = closed loop [0]
+ * Implementations: ListCustomerRepository, IndexedCustomerRepository, LoggedCustomerRepository with and without
+ * a sync per write (in a temp directory), and CustomerServiceBad (see ServiceBadRepository).
+ */
+public class CustomerLoadTest {
+    public static void main(String[] args) {
+        LoadHarness harness = LoadHarness.create();
+        List<Boolean> threadKinds = List.of(false);
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> harness = harness.withThreads(Integer.parseInt(value(args, ++i)));
+                case "--platform" -> threadKinds = List.of(false);
+                case "--virtual" -> threadKinds = List.of(true);
+                case "--both" -> threadKinds = List.of(false, true);
+                case "--seconds" -> harness = harness.withDuration(seconds(value(args, ++i)));
+                case "--warmup" -> harness = harness.withWarmup(seconds(value(args, ++i)));
+                case "--interval" -> harness = harness.withInterval(seconds(value(args, ++i)));
+                case "--mix" -> harness = harness.withMix(OperationMix.parse(value(args, ++i)));
+                case "--customers" -> harness = harness.withCustomers(Integer.parseInt(value(args, ++i)));
+                case "--names" -> harness = harness.withNames(Integer.parseInt(value(args, ++i)));
+                case "--rate" -> harness = harness.withTargetThroughput(Double.parseDouble(value(args, ++i)));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Path directory = createTempDirectory();
+        try {
+            List<LoadResult> results = new ArrayList<>();
+            for (boolean virtual : threadKinds) {
+                LoadHarness run = harness.withVirtualThreads(virtual);
+                String suffix = threadKinds.size() > 1 ? (virtual ? " [virtual]" : " [platform]") : "";
+                results.add(report(run.run("ListCustomerRepository" + suffix, ListCustomerRepository::new)));
+                results.add(report(run.run("IndexedCustomerRepository" + suffix, IndexedCustomerRepository::new)));
+                results.add(report(run.run("LoggedCustomerRepository sync" + suffix, () -> logged(directory, true))));
+                results.add(report(run.run("LoggedCustomerRepository no sync" + suffix,
+                        () -> logged(directory, false))));
+                results.add(report(run.run("CustomerServiceBad" + suffix,
+                        () -> new ServiceBadRepository(file(directory)))));
+            }
+            System.out.println();
+            System.out.print(LoadReport.format(results));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static LoadResult report(LoadResult result) {
+        System.out.printf("%s: %,.0f ops/s%n", result.getLabel(), result.getThroughput());
+        return result;
+    }
+
+    private static LoggedCustomerRepository logged(Path directory, boolean syncEveryWrite) {
+        return new LoggedCustomerRepository(file(directory), syncEveryWrite,
+                LoggedCustomerRepository.DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static Duration seconds(String value) {
+        return Duration.ofNanos((long) (Double.parseDouble(value) * 1e9));
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("customer-load-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a temp directory", e);
+        }
+    }
+
+    private static Path file(Path directory) {
+        try {
+            return Files.createTempFile(directory, "customers-", ".log");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a log file in " + directory, e);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete " + directory, e);
+        }
+    }
+}
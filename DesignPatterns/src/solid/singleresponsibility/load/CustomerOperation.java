@@ -0,0 +1,17 @@
+package solid.singleresponsibility.load;
+
+/**
+ * The CustomerService calls a load run mixes, each with its own latency histogram.
+ */
+public enum CustomerOperation {
+    /** addCustomer() with an email from the key space: a new customer, or a replacement of an existing one. */
+    ADD,
+    /** findByEmail() with an email from the key space, so some lookups miss. */
+    FIND_BY_EMAIL,
+    /** findByName() with one of the shared names. */
+    FIND_BY_NAME,
+    /** getCustomers(): a snapshot of every customer. */
+    GET_CUSTOMERS,
+    /** removeByEmail() with an email from the key space. */
+    REMOVE
+}
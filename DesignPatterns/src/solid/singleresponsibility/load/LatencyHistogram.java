@@ -0,0 +1,127 @@
+package solid.singleresponsibility.load;
+
+import java.util.Arrays;
+
+/**
+ * A latency histogram in the style of HdrHistogram: fixed memory, O(1) record(), and every value kept to within
+ * 1% (1/128) of its true value from 1 ns to hours, so p99.9 and max are as trustworthy as the median.
+ * Buckets are log-linear:
+ * 1. values below 256 get a bucket each.
+ * 2. above that, every power-of-two range [2^k, 2^(k+1)) is split into 128 equal sub-buckets, so the bucket
+ *    width grows with the value and the relative error stays below 1/128.
+ * A histogram is not thread-safe: every load thread records into its own, and add() merges them afterwards,
+ * which keeps the measuring itself free of contention.
+ *      LatencyHistogram histogram = new LatencyHistogram();
+ *      histogram.record(System.nanoTime() - start);
+ *      histogram.getValueAtPercentile(99.9);     // in the unit recorded, here ns
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records one value; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[index(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Adds all values recorded in other to this histogram.
+     */
+    public LatencyHistogram add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    static int index(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * The largest value that falls into the bucket at index.
+     */
+    static long highestValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * The value that percentile percent of the recorded values are at or below, e.g. 99.9 for p99.9.
+     * Reported as the top of its bucket (never below the true value), capped at the exact maximum.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,381 @@
+package solid.singleresponsibility.load;
+
+import solid.singleresponsibility.Customer;
+import solid.singleresponsibility.CustomerRepository;
+import solid.singleresponsibility.CustomerService;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives a CustomerService over a CustomerRepository from many threads and measures it:
+ *      LoadResult result = LoadHarness.create()
+ *              .withThreads(64).withVirtualThreads(true)
+ *              .withMix(OperationMix.readHeavy())
+ *              .run("indexed", IndexedCustomerRepository::new);
+ *      System.out.println(LoadReport.format(List.of(result)));
+ * A run:
+ * 1. fills a fresh repository with getCustomers() customers ("customer-17@example.com", named from a pool of
+ *    getNames() names), so lookups hit and lists have realistic sizes.
+ * 2. runs the threads for the warmup time and throws the measurements away (JIT compilation, cache warming).
+ * 3. runs them again for the measured duration. Every thread keeps its own LatencyHistogram per operation and its
+ *    own per-interval operation counts; they are merged after the threads finish, so measuring never contends.
+ * Emails are drawn from a key space twice the initial size, so adds mix inserts with replacements and lookups
+ * mix hits with misses.
+ * Closed or open loop:
+ *  - by default (closed loop) every thread starts its next call as soon as the last one returns, and latency is
+ *    the time of the call. This finds the maximum throughput, but a stall delays the calls that would have been
+ *    made meanwhile instead of showing up in their latencies (coordinated omission).
+ *  - withTargetThroughput(opsPerSecond) switches to an open loop: calls are scheduled at a fixed rate, and latency
+ *    is measured from the time a call was scheduled, so time spent queued behind a stall is counted.
+ * Repositories that are AutoCloseable are closed after the run.
+ */
+public final class LoadHarness {
+    private final int threads;
+    private final boolean virtualThreads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration interval;
+    private final OperationMix mix;
+    private final int customers;
+    private final int names;
+    private final double targetThroughput;
+    private final long seed;
+
+    private LoadHarness(int threads, boolean virtualThreads, Duration warmup, Duration duration, Duration interval,
+                        OperationMix mix, int customers, int names, double targetThroughput, long seed) {
+        this.threads = threads;
+        this.virtualThreads = virtualThreads;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.interval = interval;
+        this.mix = mix;
+        this.customers = customers;
+        this.names = names;
+        this.targetThroughput = targetThroughput;
+        this.seed = seed;
+    }
+
+    /**
+     * One platform thread per processor, 2 s warmup, 10 s measured in 1 s intervals, a read-heavy mix over
+     * 10,000 customers with 1,000 names, closed loop.
+     */
+    public static LoadHarness create() {
+        return new LoadHarness(Runtime.getRuntime().availableProcessors(), false, Duration.ofSeconds(2),
+                Duration.ofSeconds(10), Duration.ofSeconds(1), OperationMix.readHeavy(), 10_000, 1_000, 0, 42L);
+    }
+
+    public LoadHarness withThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        }
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                targetThroughput, seed);
+    }
+
+    public LoadHarness withVirtualThreads(boolean virtualThreads) {
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                targetThroughput, seed);
+    }
+
+    public LoadHarness withWarmup(Duration warmup) {
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("Warmup must not be negative: " + warmup);
+        }
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                targetThroughput, seed);
+    }
+
+    public LoadHarness withDuration(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive: " + duration);
+        }
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                targetThroughput, seed);
+    }
+
+    /**
+     * Length of the intervals throughput over time is reported in.
+     */
+    public LoadHarness withInterval(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                targetThroughput, seed);
+    }
+
+    public LoadHarness withMix(OperationMix mix) {
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                targetThroughput, seed);
+    }
+
+    /**
+     * Customers added before the run; emails are drawn from twice as many.
+     */
+    public LoadHarness withCustomers(int customers) {
+        if (customers < 1) {
+            throw new IllegalArgumentException("At least one customer is needed: " + customers);
+        }
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                targetThroughput, seed);
+    }
+
+    /**
+     * Distinct customer names; fewer names mean longer findByName() results.
+     */
+    public LoadHarness withNames(int names) {
+        if (names < 1) {
+            throw new IllegalArgumentException("At least one name is needed: " + names);
+        }
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                targetThroughput, seed);
+    }
+
+    /**
+     * Schedules calls at this total rate (open loop) instead of as fast as possible; 0 goes back to closed loop.
+     */
+    public LoadHarness withTargetThroughput(double opsPerSecond) {
+        if (opsPerSecond < 0) {
+            throw new IllegalArgumentException("Target throughput must not be negative: " + opsPerSecond);
+        }
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                opsPerSecond, seed);
+    }
+
+    public LoadHarness withSeed(long seed) {
+        return new LoadHarness(threads, virtualThreads, warmup, duration, interval, mix, customers, names,
+                targetThroughput, seed);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getNames() {
+        return names;
+    }
+
+    /**
+     * Runs the load against a new repository from repositories and returns the measurements of the measured
+     * phase.
+     */
+    public LoadResult run(String label, Supplier<? extends CustomerRepository> repositories) {
+        CustomerRepository repository = repositories.get();
+        try {
+            Keys keys = new Keys(customers, names);
+            CustomerService service = new CustomerService(repository);
+            for (int i = 0; i < customers; i++) {
+                service.addCustomer(new Customer(keys.names[i % names], keys.emails[i]));
+            }
+            if (!warmup.isZero()) {
+                runPhase(service, keys, warmup.toNanos(), seed ^ 0x5DEECE66DL);
+            }
+            Worker[] workers = new Worker[threads];
+            long elapsed = runPhase(service, keys, duration.toNanos(), seed, workers);
+            return result(label, elapsed, workers, service.getCustomers().size());
+        } finally {
+            if (repository instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Could not close repository " + label, e);
+                }
+            }
+        }
+    }
+
+    private long runPhase(CustomerService service, Keys keys, long nanos, long phaseSeed) {
+        return runPhase(service, keys, nanos, phaseSeed, new Worker[threads]);
+    }
+
+    /**
+     * Starts all workers, releases them together and waits for them; returns the elapsed time.
+     */
+    private long runPhase(CustomerService service, Keys keys, long nanos, long phaseSeed, Worker[] workers) {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        long periodNanos = targetThroughput == 0 ? 0 : (long) (threads * 1e9 / targetThroughput);
+        int slots = (int) Math.max(1, (nanos + interval.toNanos() - 1) / interval.toNanos());
+        Thread[] started = new Thread[threads];
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual().name("load-", 0)
+                : Thread.ofPlatform().name("load-", 0);
+        Phase phase = new Phase(service, keys, nanos, periodNanos, interval.toNanos(), slots, ready, go);
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(phase, new SplittableRandom(phaseSeed + i));
+            started[i] = builder.start(workers[i]);
+        }
+        try {
+            ready.await();
+            phase.start = System.nanoTime();
+            go.countDown();
+            for (Thread thread : started) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the load", e);
+        }
+        return System.nanoTime() - phase.start;
+    }
+
+    private LoadResult result(String label, long elapsed, Worker[] workers, int customersAtEnd) {
+        Map<CustomerOperation, LatencyHistogram> histograms = new EnumMap<>(CustomerOperation.class);
+        long[] opsPerInterval = new long[workers[0].opsPerInterval.length];
+        long errors = 0;
+        String firstError = null;
+        for (Worker worker : workers) {
+            for (CustomerOperation operation : CustomerOperation.values()) {
+                LatencyHistogram histogram = worker.histograms[operation.ordinal()];
+                if (histogram.getTotalCount() > 0) {
+                    histograms.computeIfAbsent(operation, key -> new LatencyHistogram()).add(histogram);
+                }
+            }
+            for (int i = 0; i < opsPerInterval.length; i++) {
+                opsPerInterval[i] += worker.opsPerInterval[i];
+            }
+            errors += worker.errors;
+            if (firstError == null && worker.firstError != null) {
+                firstError = worker.firstError.toString();
+            }
+        }
+        return new LoadResult(label, threads, virtualThreads, mix, elapsed, interval.toNanos(), histograms,
+                opsPerInterval, errors, firstError, customersAtEnd);
+    }
+
+    /**
+     * Emails and names built once, so that no String is created while a call is being timed.
+     */
+    private static final class Keys {
+        final String[] emails;
+        final String[] names;
+
+        Keys(int customers, int nameCount) {
+            emails = new String[2 * customers];
+            for (int i = 0; i < emails.length; i++) {
+                emails[i] = "customer-" + i + "@example.com";
+            }
+            names = new String[nameCount];
+            for (int i = 0; i < nameCount; i++) {
+                names[i] = "Name-" + i;
+            }
+        }
+    }
+
+    /**
+     * Everything the workers of one phase share; start is written before go is released.
+     */
+    private final class Phase {
+        final CustomerService service;
+        final Keys keys;
+        final long nanos;
+        final long periodNanos;
+        final long intervalNanos;
+        final int slots;
+        final CountDownLatch ready;
+        final CountDownLatch go;
+        long start;
+
+        Phase(CustomerService service, Keys keys, long nanos, long periodNanos, long intervalNanos, int slots,
+              CountDownLatch ready, CountDownLatch go) {
+            this.service = service;
+            this.keys = keys;
+            this.nanos = nanos;
+            this.periodNanos = periodNanos;
+            this.intervalNanos = intervalNanos;
+            this.slots = slots;
+            this.ready = ready;
+            this.go = go;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final Phase phase;
+        final SplittableRandom random;
+        final LatencyHistogram[] histograms = new LatencyHistogram[CustomerOperation.values().length];
+        final long[] opsPerInterval;
+        long errors;
+        Throwable firstError;
+
+        Worker(Phase phase, SplittableRandom random) {
+            this.phase = phase;
+            this.random = random;
+            this.opsPerInterval = new long[phase.slots];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            phase.ready.countDown();
+            try {
+                phase.go.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long start = phase.start;
+            long deadline = start + phase.nanos;
+            // Spread the first calls of the threads over one period so that an open loop does not start in bursts.
+            long scheduled = phase.periodNanos == 0 ? 0 : start + random.nextLong(phase.periodNanos);
+            Keys keys = phase.keys;
+            while (true) {
+                CustomerOperation operation = mix.next(random);
+                String email = keys.emails[random.nextInt(keys.emails.length)];
+                String name = keys.names[random.nextInt(keys.names.length)];
+                long begin;
+                if (phase.periodNanos == 0) {
+                    begin = System.nanoTime();
+                    if (begin >= deadline) {
+                        break;
+                    }
+                } else {
+                    long now;
+                    while ((now = System.nanoTime()) < scheduled) {
+                        LockSupport.parkNanos(scheduled - now);
+                    }
+                    if (scheduled >= deadline || now >= deadline) {
+                        break;
+                    }
+                    begin = scheduled;
+                    scheduled += phase.periodNanos;
+                }
+                try {
+                    call(phase.service, operation, email, name);
+                } catch (RuntimeException e) {
+                    errors++;
+                    if (firstError == null) {
+                        firstError = e;
+                    }
+                }
+                long end = System.nanoTime();
+                histograms[operation.ordinal()].record(end - begin);
+                opsPerInterval[(int) Math.min(phase.slots - 1, (end - start) / phase.intervalNanos)]++;
+            }
+        }
+
+        private void call(CustomerService service, CustomerOperation operation, String email, String name) {
+            switch (operation) {
+                case ADD -> service.addCustomer(new Customer(name, email));
+                case FIND_BY_EMAIL -> service.findByEmail(email);
+                case FIND_BY_NAME -> service.findByName(name);
+                case GET_CUSTOMERS -> service.getCustomers();
+                case REMOVE -> service.removeByEmail(email);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package solid.singleresponsibility.load;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formats LoadResults as plain-text tables, so runs of different repositories (or of the same repository with
+ * platform and virtual threads) can be compared side by side:
+ * 1. Summary: throughput, throughput relative to the first result, latency percentiles over all operations,
+ *    errors and the number of customers at the end.
+ * 2. Latency by operation: count, mean and p50 / p90 / p99 / p99.9 / max per operation.
+ * 3. Throughput over time: operations per second in every interval, which shows warm-up left-overs, GC pauses
+ *    and compactions that an average hides.
+ * Latencies are printed in microseconds.
+ */
+public final class LoadReport {
+    private LoadReport() {
+    }
+
+    public static String format(List<LoadResult> results) {
+        if (results.isEmpty()) {
+            return "No results\n";
+        }
+        StringBuilder report = new StringBuilder();
+        summary(report, results);
+        report.append('\n');
+        latencyByOperation(report, results);
+        report.append('\n');
+        throughputOverTime(report, results);
+        for (LoadResult result : results) {
+            if (result.getFirstError() != null) {
+                report.append(String.format(Locale.ROOT, "%nFirst error of %s: %s%n", result.getLabel(),
+                        result.getFirstError()));
+            }
+        }
+        return report.toString();
+    }
+
+    private static void summary(StringBuilder report, List<LoadResult> results) {
+        int width = labelWidth(results);
+        LoadResult first = results.get(0);
+        report.append(String.format(Locale.ROOT, "Summary (mix: %s, latencies in us)%n", first.getMix()));
+        report.append(String.format(Locale.ROOT, "%-" + width + "s %12s %14s %8s %9s %9s %9s %10s %8s %10s%n",
+                "Implementation", "Threads", "ops/s", "vs 1st", "p50", "p99", "p99.9", "max", "errors",
+                "customers"));
+        for (LoadResult result : results) {
+            LatencyHistogram latency = result.getLatency();
+            report.append(String.format(Locale.ROOT, "%-" + width + "s %12s %,14.0f %7.2fx %9s %9s %9s %10s %8d %10d%n",
+                    result.getLabel(),
+                    result.getThreads() + (result.isVirtualThreads() ? " virtual" : " platform"),
+                    result.getThroughput(),
+                    first.getThroughput() == 0 ? 0 : result.getThroughput() / first.getThroughput(),
+                    micros(latency.getValueAtPercentile(50)),
+                    micros(latency.getValueAtPercentile(99)),
+                    micros(latency.getValueAtPercentile(99.9)),
+                    micros(latency.getMax()),
+                    result.getErrors(),
+                    result.getCustomers()));
+        }
+    }
+
+    private static void latencyByOperation(StringBuilder report, List<LoadResult> results) {
+        int width = labelWidth(results);
+        report.append("Latency by operation (us)\n");
+        report.append(String.format(Locale.ROOT, "%-" + width + "s %-14s %12s %9s %9s %9s %9s %9s %10s%n",
+                "Implementation", "Operation", "count", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        for (LoadResult result : results) {
+            for (CustomerOperation operation : CustomerOperation.values()) {
+                LatencyHistogram histogram = result.getHistogram(operation);
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                report.append(String.format(Locale.ROOT, "%-" + width + "s %-14s %,12d %9s %9s %9s %9s %9s %10s%n",
+                        result.getLabel(),
+                        operation,
+                        histogram.getTotalCount(),
+                        micros(histogram.getMean()),
+                        micros(histogram.getValueAtPercentile(50)),
+                        micros(histogram.getValueAtPercentile(90)),
+                        micros(histogram.getValueAtPercentile(99)),
+                        micros(histogram.getValueAtPercentile(99.9)),
+                        micros(histogram.getMax())));
+            }
+        }
+    }
+
+    private static void throughputOverTime(StringBuilder report, List<LoadResult> results) {
+        int width = labelWidth(results);
+        LoadResult first = results.get(0);
+        double seconds = first.getIntervalNanos() / 1e9;
+        report.append(String.format(Locale.ROOT, "Throughput over time (ops/s per %s s interval)%n",
+                trim(seconds)));
+        for (LoadResult result : results) {
+            report.append(String.format(Locale.ROOT, "%-" + width + "s", result.getLabel()));
+            double intervalSeconds = result.getIntervalNanos() / 1e9;
+            for (long operations : result.getOpsPerInterval()) {
+                report.append(String.format(Locale.ROOT, " %,11.0f", operations / intervalSeconds));
+            }
+            report.append('\n');
+        }
+    }
+
+    private static int labelWidth(List<LoadResult> results) {
+        int width = "Implementation".length();
+        for (LoadResult result : results) {
+            width = Math.max(width, result.getLabel().length());
+        }
+        return width;
+    }
+
+    private static String micros(double nanos) {
+        return String.format(Locale.ROOT, nanos < 10_000 ? "%.2f" : "%,.0f", nanos / 1000);
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,120 @@
+package solid.singleresponsibility.load;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * What one LoadHarness run measured: a latency histogram per operation (in nanoseconds), the number of completed
+ * operations per reporting interval, and the errors the repository threw.
+ */
+public final class LoadResult {
+    private final String label;
+    private final int threads;
+    private final boolean virtualThreads;
+    private final OperationMix mix;
+    private final long elapsedNanos;
+    private final long intervalNanos;
+    private final Map<CustomerOperation, LatencyHistogram> histograms;
+    private final long[] opsPerInterval;
+    private final long errors;
+    private final String firstError;
+    private final int customers;
+
+    LoadResult(String label, int threads, boolean virtualThreads, OperationMix mix, long elapsedNanos,
+               long intervalNanos, Map<CustomerOperation, LatencyHistogram> histograms, long[] opsPerInterval,
+               long errors, String firstError, int customers) {
+        this.label = label;
+        this.threads = threads;
+        this.virtualThreads = virtualThreads;
+        this.mix = mix;
+        this.elapsedNanos = elapsedNanos;
+        this.intervalNanos = intervalNanos;
+        this.histograms = new EnumMap<>(histograms);
+        this.opsPerInterval = opsPerInterval;
+        this.errors = errors;
+        this.firstError = firstError;
+        this.customers = customers;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public OperationMix getMix() {
+        return mix;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * Latencies of one operation; an empty histogram if the mix never chose it.
+     */
+    public LatencyHistogram getHistogram(CustomerOperation operation) {
+        LatencyHistogram histogram = histograms.get(operation);
+        return histogram == null ? new LatencyHistogram() : histogram;
+    }
+
+    /**
+     * Latencies of all operations together.
+     */
+    public LatencyHistogram getLatency() {
+        LatencyHistogram total = new LatencyHistogram();
+        histograms.values().forEach(total::add);
+        return total;
+    }
+
+    public long getOperations() {
+        long operations = 0;
+        for (LatencyHistogram histogram : histograms.values()) {
+            operations += histogram.getTotalCount();
+        }
+        return operations;
+    }
+
+    /**
+     * Completed operations per second over the whole measurement.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getOperations() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Completed operations in each interval of getIntervalNanos(), in order; a copy.
+     */
+    public long[] getOpsPerInterval() {
+        return Arrays.copyOf(opsPerInterval, opsPerInterval.length);
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * The first exception the repository threw, as text, or null if there were no errors.
+     */
+    public String getFirstError() {
+        return firstError;
+    }
+
+    /**
+     * Customers in the repository at the end of the run.
+     */
+    public int getCustomers() {
+        return customers;
+    }
+}
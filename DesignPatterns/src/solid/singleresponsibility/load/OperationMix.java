@@ -0,0 +1,90 @@
+package solid.singleresponsibility.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * How often each CustomerOperation is chosen, as integer weights:
+ *      OperationMix.of(10, 80, 9, 1, 0)    // 10% adds, 80% email lookups, 9% name lookups, 1% full snapshots
+ *      OperationMix.readHeavy()            // the same
+ *      OperationMix.writeHeavy()           // 50% adds, 10% removes, 40% lookups
+ * next() picks an operation in O(1) from a table with one slot per unit of weight.
+ */
+public final class OperationMix {
+    private final int[] weights;
+    private final CustomerOperation[] table;
+
+    private OperationMix(int[] weights) {
+        this.weights = weights;
+        int total = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative: " + weight);
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one operation needs a positive weight");
+        }
+        table = new CustomerOperation[total];
+        int slot = 0;
+        for (CustomerOperation operation : CustomerOperation.values()) {
+            for (int i = 0; i < weights[operation.ordinal()]; i++) {
+                table[slot++] = operation;
+            }
+        }
+    }
+
+    public static OperationMix of(int add, int findByEmail, int findByName, int getCustomers, int remove) {
+        return new OperationMix(new int[]{add, findByEmail, findByName, getCustomers, remove});
+    }
+
+    public static OperationMix readHeavy() {
+        return of(10, 80, 9, 1, 0);
+    }
+
+    public static OperationMix writeHeavy() {
+        return of(50, 30, 10, 0, 10);
+    }
+
+    /**
+     * Parses "add:findByEmail:findByName:getCustomers:remove" weights, e.g. "10:80:9:1:0".
+     */
+    public static OperationMix parse(String weights) {
+        String[] parts = weights.split(":");
+        if (parts.length != CustomerOperation.values().length) {
+            throw new IllegalArgumentException("Expected 5 weights add:findByEmail:findByName:getCustomers:remove, got "
+                    + weights);
+        }
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return new OperationMix(values);
+    }
+
+    CustomerOperation next(SplittableRandom random) {
+        return table[random.nextInt(table.length)];
+    }
+
+    public Map<CustomerOperation, Integer> getWeights() {
+        Map<CustomerOperation, Integer> result = new EnumMap<>(CustomerOperation.class);
+        for (CustomerOperation operation : CustomerOperation.values()) {
+            result.put(operation, weights[operation.ordinal()]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (CustomerOperation operation : CustomerOperation.values()) {
+            if (weights[operation.ordinal()] > 0) {
+                result.append(result.isEmpty() ? "" : " ").append(operation).append('=')
+                        .append(weights[operation.ordinal()]);
+            }
+        }
+        return result.toString();
+    }
+}
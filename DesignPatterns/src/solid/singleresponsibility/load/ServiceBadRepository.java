@@ -0,0 +1,71 @@
+package solid.singleresponsibility.load;
+
+import solid.singleresponsibility.Customer;
+import solid.singleresponsibility.CustomerRepository;
+import solid.singleresponsibility.CustomerServiceBad;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Lets the harness drive CustomerServiceBad, which does not implement CustomerRepository, the way its callers
+ * would have to use it: every call under one lock (its ArrayList is not thread-safe), and every add followed by
+ * saveCustomersToFile() to make it durable. Lookups scan the list, an add does not replace an existing
+ * customer with the same email, and a remove is not written to the file (it also shifts the list that
+ * saveCustomersToFile() tracks by position), because CustomerServiceBad cannot do any of that itself.
+ */
+final class ServiceBadRepository implements CustomerRepository, Closeable {
+    private final CustomerServiceBad service;
+
+    ServiceBadRepository(Path file) {
+        this.service = new CustomerServiceBad(file);
+    }
+
+    @Override
+    public synchronized List<Customer> getCustomers() {
+        return new ArrayList<>(service.getCustomers());
+    }
+
+    @Override
+    public synchronized void addCustomer(Customer customer) {
+        service.addCustomer(customer);
+        service.saveCustomersToFile();
+    }
+
+    @Override
+    public synchronized Optional<Customer> findByEmail(String email) {
+        for (Customer customer : service.getCustomers()) {
+            if (Objects.equals(customer.getEmail(), email)) {
+                return Optional.of(customer);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized List<Customer> findByName(String name) {
+        List<Customer> result = new ArrayList<>();
+        for (Customer customer : service.getCustomers()) {
+            if (Objects.equals(customer.getName(), name)) {
+                result.add(customer);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Optional<Customer> removeByEmail(String email) {
+        Optional<Customer> customer = findByEmail(email);
+        customer.ifPresent(service.getCustomers()::remove);
+        return customer;
+    }
+
+    @Override
+    public synchronized void close() {
+        service.close();
+    }
+}
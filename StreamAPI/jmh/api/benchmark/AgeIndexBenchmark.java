@@ -0,0 +1,74 @@
+package api.benchmark;
+
+import api.index.AgeIndex;
+import api.index.AgeRange;
+import api.methods.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * count, findFirst and filter for "age > 30" as in API.count()/find()/filter(): a stream over all people
+ * against the AgeIndex. findFirst uses age > 85, which matches late in the list.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class AgeIndexBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    List<Person> people;
+    AgeIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        people = Datasets.people(size);
+        index = AgeIndex.of(people);
+    }
+
+    @Benchmark
+    public long streamCount() {
+        return people.stream().filter(person -> person.getAge() > 30).count();
+    }
+
+    @Benchmark
+    public long indexCount() {
+        return index.count(AgeRange.greaterThan(30));
+    }
+
+    @Benchmark
+    public Optional<Person> streamFindFirst() {
+        return people.stream().filter(person -> person.getAge() > 85).findFirst();
+    }
+
+    @Benchmark
+    public Optional<Person> indexFindFirst() {
+        return index.findFirst(AgeRange.greaterThan(85));
+    }
+
+    @Benchmark
+    public List<Person> streamFilter() {
+        return people.stream().filter(person -> person.getAge() > 30).toList();
+    }
+
+    @Benchmark
+    public List<Person> indexFilter() {
+        return index.filter(AgeRange.greaterThan(30));
+    }
+
+    @Benchmark
+    public List<Person> indexInRange() {
+        return index.inRange(AgeRange.greaterThan(30));
+    }
+
+    @Benchmark
+    public AgeIndex build() {
+        return AgeIndex.of(people);
+    }
+}
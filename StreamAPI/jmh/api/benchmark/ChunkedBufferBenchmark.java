@@ -0,0 +1,67 @@
+package api.benchmark;
+
+import api.collectors.ChunkedBuffer;
+import api.collectors.IntChunkedBuffer;
+import api.methods.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The ArrayList::new, ArrayList::add, ArrayList::addAll collect() from API.collectors() versus ChunkedBuffer,
+ * after a filter() so that the size of the result is unknown, and int ages collected through a downstream-style
+ * Collector (boxing Collectors.toList() versus IntChunkedBuffer.collecting()).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ChunkedBufferBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<Person> people;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        people = Datasets.people(size);
+    }
+
+    private Stream<Person> adults() {
+        return (parallel ? people.parallelStream() : people.stream()).filter(Person::isAdult);
+    }
+
+    @Benchmark
+    public List<Person> arrayList() {
+        return adults().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+
+    @Benchmark
+    public List<Person> chunkedList() {
+        return adults().collect(ChunkedBuffer.toList());
+    }
+
+    @Benchmark
+    public Person[] chunkedArray() {
+        return adults().collect(ChunkedBuffer.collectingToArray(Person[]::new));
+    }
+
+    @Benchmark
+    public List<Integer> boxedAges() {
+        return adults().collect(Collectors.mapping(Person::getAge, Collectors.toList()));
+    }
+
+    @Benchmark
+    public int[] chunkedAges() {
+        return adults().collect(IntChunkedBuffer.collecting(Person::getAge));
+    }
+}
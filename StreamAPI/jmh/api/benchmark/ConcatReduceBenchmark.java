@@ -0,0 +1,55 @@
+package api.benchmark;
+
+import api.collectors.ByteJoiner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The {@code reduce((str1, str2) -> str1 + "," + str2)} form of API.concatStringByComma().
+ * It copies the whole accumulated string on every step, so it is quadratic in the total length and gets
+ * its own, smaller sizes: one million words would not finish in a measurement iteration.
+ * byteJoiner is the linear replacement, for comparison at the same sizes (see JoiningBenchmark for large ones).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ConcatReduceBenchmark {
+    @Param({"1000", "10000", "50000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<String> words;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Datasets.words(size);
+    }
+
+    private Stream<String> words() {
+        return parallel ? words.parallelStream() : words.stream();
+    }
+
+    @Benchmark
+    public Optional<String> reduceWithPlus() {
+        return words().reduce((str1, str2) -> str1 + "," + str2);
+    }
+
+    @Benchmark
+    public Optional<String> reduceWithConcat() {
+        return words().reduce(String::concat);
+    }
+
+    @Benchmark
+    public String byteJoiner() {
+        return words().collect(ByteJoiner.joiningToString(","));
+    }
+}
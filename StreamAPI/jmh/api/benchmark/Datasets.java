@@ -0,0 +1,94 @@
+package api.benchmark;
+
+import api.methods.Employee;
+import api.methods.Person;
+import api.methods.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic data generators for the benchmarks.
+ * Every generator uses a fixed seed so two runs (or two machines) measure exactly the same input.
+ * Names and categories are drawn from small pools, the same way real data repeats a handful of values,
+ * so the datasets measure the stream pipelines and not String allocation.
+ */
+public final class Datasets {
+    static final long SEED = 42L;
+
+    static final String[] NAMES = {
+            "John", "Mary", "Tom", "Alice", "Lisa", "Emma", "Liam", "Hector", "Bella", "Alex",
+            "Mariam", "Ismail", "Alesha", "Andre", "Susy", "Ali", "Anna", "Marcos", "Helena", "Yasmin"
+    };
+
+    static final String[] CATEGORIES = {
+            "Electronics", "Clothing", "Books", "Fruit", "Garden", "Toys", "Sports", "Music"
+    };
+
+    static final String[] WORDS = {
+            "apple", "banana", "orange", "pear", "grape", "cat", "dog", "elephant", "frog",
+            "Java", "is", "fun", "and", "powerful", "downtime", "London", "hello", "World"
+    };
+
+    private Datasets() {
+    }
+
+    public static List<Person> people(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(NAMES[random.nextInt(NAMES.length)], random.nextInt(0, 90)));
+        }
+        return people;
+    }
+
+    public static List<Employee> employees(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double salary = 1000 + Math.floor(random.nextDouble() * 9000);
+            employees.add(new Employee(NAMES[random.nextInt(NAMES.length)], salary));
+        }
+        return employees;
+    }
+
+    /**
+     * Products with roughly one duplicate per distinct name, so distinct() keeps about half of them.
+     */
+    public static List<Product> products(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int distinctNames = Math.max(1, size / 2);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = "Product-" + random.nextInt(distinctNames);
+            products.add(new Product(name, CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        }
+        return products;
+    }
+
+    public static List<String> words(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<String> words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            words.add(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return words;
+    }
+
+    /**
+     * Splits {@code size} words into small sub-lists of 1..8 elements, like the nested lists in API.flatMap.
+     */
+    public static List<List<String>> nestedWords(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<String> words = words(size);
+        List<List<String>> nested = new ArrayList<>();
+        int from = 0;
+        while (from < size) {
+            int to = Math.min(size, from + 1 + random.nextInt(8));
+            nested.add(new ArrayList<>(words.subList(from, to)));
+            from = to;
+        }
+        return nested;
+    }
+}
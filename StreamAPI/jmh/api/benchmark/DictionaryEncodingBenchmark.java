@@ -0,0 +1,80 @@
+package api.benchmark;
+
+import api.columnar.PersonTable;
+import api.columnar.ProductTable;
+import api.methods.Person;
+import api.methods.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Category and name queries over List&lt;Product&gt; / List&lt;Person&gt; versus the dictionary-encoded
+ * ProductTable / PersonTable: counting, grouping, distinct and an equality filter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class DictionaryEncodingBenchmark {
+    @Param({"10000", "1000000"})
+    int size;
+
+    List<Product> products;
+    List<Person> people;
+    ProductTable productTable;
+    PersonTable personTable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = Datasets.products(size);
+        people = Datasets.people(size);
+        productTable = ProductTable.from(products);
+        personTable = PersonTable.from(people);
+    }
+
+    @Benchmark
+    public Map<String, Long> streamCountByCategory() {
+        return products.stream().collect(Collectors.groupingBy(Product::getCategory, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> tableCountByCategory() {
+        return productTable.countByCategory();
+    }
+
+    @Benchmark
+    public Map<String, List<Product>> streamGroupByCategory() {
+        return products.stream().collect(Collectors.groupingBy(Product::getCategory));
+    }
+
+    @Benchmark
+    public Map<String, List<Product>> tableGroupByCategory() {
+        return productTable.groupByCategory();
+    }
+
+    @Benchmark
+    public List<String> streamDistinctCategories() {
+        return products.stream().map(Product::getCategory).distinct().toList();
+    }
+
+    @Benchmark
+    public List<String> tableDistinctCategories() {
+        return productTable.distinctCategories();
+    }
+
+    @Benchmark
+    public long streamFilterByName() {
+        return people.stream().filter(person -> person.getName().equals("Anna")).count();
+    }
+
+    @Benchmark
+    public int[] tableRowsNamed() {
+        return personTable.rowsNamed("Anna");
+    }
+}
@@ -0,0 +1,58 @@
+package api.benchmark;
+
+import api.distinct.DistinctFilter;
+import api.distinct.Fingerprints;
+import api.methods.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stream.distinct() against the fingerprint-based DistinctFilter modes on Products with about 50% duplicates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class DistinctBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    int size;
+
+    List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = Datasets.products(size);
+    }
+
+    @Benchmark
+    public long streamDistinct() {
+        return products.stream().distinct().count();
+    }
+
+    @Benchmark
+    public long exact() {
+        try (DistinctFilter<Product> filter = DistinctFilter.exact(Fingerprints.by(Product::getName))) {
+            return products.stream().filter(filter).count();
+        }
+    }
+
+    @Benchmark
+    public long spillingWith1MBBudget() {
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir"));
+        try (DistinctFilter<Product> filter = DistinctFilter.spilling(Fingerprints.by(Product::getName), 1 << 20, tmp)) {
+            return products.stream().filter(filter).count();
+        }
+    }
+
+    @Benchmark
+    public long approximateOnePercent() {
+        try (DistinctFilter<Product> filter = DistinctFilter.approximate(Fingerprints.by(Product::getName), size, 0.01)) {
+            return products.stream().filter(filter).count();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package api.benchmark;
+
+import api.methods.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Employee pipelines from API.findMin(), API.sum() and API.statistics().
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class EmployeeBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = Datasets.employees(size);
+    }
+
+    private Stream<Employee> employees() {
+        return parallel ? employees.parallelStream() : employees.stream();
+    }
+
+    @Benchmark
+    public Optional<Employee> findMin() {
+        return employees().min(Comparator.comparingDouble(Employee::getSalary));
+    }
+
+    @Benchmark
+    public double sum() {
+        return employees().mapToDouble(Employee::getSalary).sum();
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics statistics() {
+        return employees().mapToDouble(Employee::getSalary).summaryStatistics();
+    }
+}
@@ -0,0 +1,63 @@
+package api.benchmark;
+
+import api.columnar.EmployeeTable;
+import api.methods.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List&lt;Employee&gt; with boxed salaries against the columnar EmployeeTable for the same queries.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class EmployeeTableBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    List<Employee> employees;
+    EmployeeTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = Datasets.employees(size);
+        table = EmployeeTable.from(employees);
+    }
+
+    @Benchmark
+    public double listSum() {
+        return employees.stream().mapToDouble(Employee::getSalary).sum();
+    }
+
+    @Benchmark
+    public double tableSum() {
+        return table.sum();
+    }
+
+    @Benchmark
+    public Optional<Employee> listMin() {
+        return employees.stream().min(Comparator.comparingDouble(Employee::getSalary));
+    }
+
+    @Benchmark
+    public int tableMin() {
+        return table.minRow();
+    }
+
+    @Benchmark
+    public List<Employee> listBottom100() {
+        return employees.stream().sorted(Comparator.comparingDouble(Employee::getSalary)).limit(100).toList();
+    }
+
+    @Benchmark
+    public int[] tableBottom100() {
+        return table.bottomN(100);
+    }
+}
@@ -0,0 +1,59 @@
+package api.benchmark;
+
+import api.execution.ExecutionPolicy;
+import api.execution.Workload;
+import api.methods.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * groupingBy age over people: always sequential, always parallel on the common pool, and as decided by
+ * ExecutionPolicy (sequential below its threshold, its own pool above). Small sizes show what a blind
+ * parallel() costs; with one available processor the policy always stays sequential.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ExecutionPolicyBenchmark {
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    List<Person> people;
+    ExecutionPolicy policy;
+    Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        people = Datasets.people(size);
+        policy = ExecutionPolicy.create();
+        workload = Workload.cpu().with(Workload.Stage.GROUPING);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        policy.close();
+    }
+
+    @Benchmark
+    public Map<Integer, Long> sequential() {
+        return people.stream().collect(Collectors.groupingBy(Person::getAge, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> commonPoolParallel() {
+        return people.parallelStream().collect(Collectors.groupingBy(Person::getAge, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> adaptive() {
+        return policy.execute(people, workload,
+                stream -> stream.collect(Collectors.groupingBy(Person::getAge, Collectors.counting()))).getResult();
+    }
+}
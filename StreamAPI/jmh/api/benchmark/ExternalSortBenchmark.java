@@ -0,0 +1,75 @@
+package api.benchmark;
+
+import api.external.ExternalGrouping;
+import api.external.ExternalSorter;
+import api.external.RecordCodecs;
+import api.methods.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * sorted() and groupingBy(category, counting()) over products, in memory against ExternalSorter and
+ * ExternalGrouping with a memory budget. A budget of 1 GB never spills, so it measures the overhead of the
+ * operator itself; 4 MB spills a run every few tens of thousands of products. Runs go to java.io.tmpdir.
+ * The sorted results are consumed by summing name lengths, because count() on a SIZED stream skips sorted().
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ExternalSortBenchmark {
+    @Param({"1000000"})
+    int size;
+
+    @Param({"4", "1024"})
+    int budgetMegabytes;
+
+    List<Product> products;
+    Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = Datasets.products(size);
+        directory = Path.of(System.getProperty("java.io.tmpdir"));
+    }
+
+    @Benchmark
+    public long sortedInMemory() {
+        return products.stream().sorted(Comparator.comparing(Product::getName))
+                .mapToLong(product -> product.getName().length()).sum();
+    }
+
+    @Benchmark
+    public long sortedExternal() {
+        try (ExternalSorter<Product> sorter = new ExternalSorter<>(RecordCodecs.products(),
+                Comparator.comparing(Product::getName), (long) budgetMegabytes << 20, directory)) {
+            sorter.addAll(products);
+            try (Stream<Product> sorted = sorter.sorted()) {
+                return sorted.mapToLong(product -> product.getName().length()).sum();
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingInMemory() {
+        return products.stream().collect(Collectors.groupingBy(Product::getCategory, Collectors.counting()));
+    }
+
+    @Benchmark
+    public long groupingExternal() {
+        try (Stream<Map.Entry<String, Long>> groups = ExternalGrouping.groupingBy(products.stream(),
+                Product::getCategory, Collectors.counting(), RecordCodecs.products(), (long) budgetMegabytes << 20,
+                directory)) {
+            return groups.count();
+        }
+    }
+}
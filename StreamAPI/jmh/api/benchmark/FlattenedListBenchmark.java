@@ -0,0 +1,79 @@
+package api.benchmark;
+
+import api.views.FlattenedList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * API.flatMap over many small lists of words (1 to 8 each): flatMap(List::stream) collected into a new list,
+ * a plain flatMap() pipeline, and the FlattenedList view, each summing word lengths, plus random access by index.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class FlattenedListBenchmark {
+    @Param({"100000", "1000000"})
+    int lists;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<List<String>> nested;
+    FlattenedList<String> view;
+    int[] indexes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(Datasets.SEED);
+        List<String> words = Datasets.words(1000);
+        nested = new ArrayList<>(lists);
+        for (int i = 0; i < lists; i++) {
+            int size = random.nextInt(1, 9);
+            List<String> inner = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                inner.add(words.get(random.nextInt(words.size())));
+            }
+            nested.add(inner);
+        }
+        view = FlattenedList.of(nested);
+        indexes = random.ints(10000, 0, view.size()).toArray();
+    }
+
+    private <T> Stream<T> stream(List<T> list) {
+        return parallel ? list.parallelStream() : list.stream();
+    }
+
+    @Benchmark
+    public long collectThenStream() {
+        List<String> flat = stream(nested).flatMap(List::stream).collect(Collectors.toList());
+        return stream(flat).mapToLong(String::length).sum();
+    }
+
+    @Benchmark
+    public long flatMap() {
+        return stream(nested).flatMap(List::stream).mapToLong(String::length).sum();
+    }
+
+    @Benchmark
+    public long view() {
+        return stream(FlattenedList.of(nested)).mapToLong(String::length).sum();
+    }
+
+    @Benchmark
+    public long randomAccess() {
+        long sum = 0;
+        for (int index : indexes) {
+            sum += view.get(index).length();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,59 @@
+package api.benchmark;
+
+import api.flow.BatchingSubscriber;
+import api.flow.FlowOperators;
+import api.flow.IterablePublisher;
+import api.methods.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * filter(isAdult) -> map(getAge) -> reduce(sum) over people: a sequential stream against the same pipeline of
+ * Flow processors fed by an IterablePublisher, for several buffer sizes. Smaller buffers mean more request(n)
+ * calls (one per quarter buffer) and less memory per stage.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class FlowBenchmark {
+    @Param({"100000"})
+    int size;
+
+    @Param({"16", "256", "4096"})
+    int bufferSize;
+
+    List<Person> people;
+    FlowOperators operators;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        people = Datasets.people(size);
+        operators = FlowOperators.create(bufferSize);
+    }
+
+    @Benchmark
+    public int stream() {
+        return people.stream().filter(Person::isAdult).map(Person::getAge).reduce(0, Integer::sum);
+    }
+
+    @Benchmark
+    public int flow() {
+        Flow.Processor<Person, Person> adults = operators.filter(Person::isAdult);
+        Flow.Processor<Person, Integer> ages = operators.map(Person::getAge);
+        Flow.Processor<Integer, Integer> total = operators.reduce(0, Integer::sum);
+        new IterablePublisher<>(people).subscribe(adults);
+        adults.subscribe(ages);
+        ages.subscribe(total);
+        int[] result = new int[1];
+        BatchingSubscriber<Integer> subscriber = new BatchingSubscriber<>(sum -> result[0] = sum, bufferSize);
+        total.subscribe(subscriber);
+        subscriber.completion().join();
+        return result[0];
+    }
+}
@@ -0,0 +1,68 @@
+package api.benchmark;
+
+import api.grouping.IntGrouping;
+import api.grouping.IntLongHashMap;
+import api.grouping.IntObjectHashMap;
+import api.methods.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Collectors.groupingBy over boxed Integer keys against the primitive IntGrouping engine.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class GroupingBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    int size;
+
+    List<Person> people;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        people = Datasets.people(size);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> collectorsCounting() {
+        return people.stream().collect(Collectors.groupingBy(Person::getAge, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> collectorsCountingParallel() {
+        return people.parallelStream().collect(Collectors.groupingBy(Person::getAge, Collectors.counting()));
+    }
+
+    @Benchmark
+    public IntLongHashMap intCounting() {
+        return people.stream().collect(IntGrouping.counting(Person::getAge));
+    }
+
+    @Benchmark
+    public IntLongHashMap intCountingParallelStream() {
+        return people.parallelStream().collect(IntGrouping.counting(Person::getAge));
+    }
+
+    @Benchmark
+    public IntLongHashMap intCountParallel() {
+        return IntGrouping.countParallel(people, Person::getAge);
+    }
+
+    @Benchmark
+    public Map<Integer, List<Person>> collectorsGroupingBy() {
+        return people.stream().collect(Collectors.groupingBy(Person::getAge));
+    }
+
+    @Benchmark
+    public IntObjectHashMap<List<Person>> intGroupParallel() {
+        return IntGrouping.groupParallel(people, Person::getAge);
+    }
+}
@@ -0,0 +1,65 @@
+package api.benchmark;
+
+import api.collectors.ByteJoiner;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exporting a large comma separated list as bytes: Collectors.joining() plus getBytes(), against ByteJoiner
+ * to a byte[] and streamed to an OutputStream (a null stream, so only the joining is measured).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class JoiningBenchmark {
+    @Param({"100000", "1000000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<String> words;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Datasets.words(size);
+    }
+
+    private Stream<String> words() {
+        return parallel ? words.parallelStream() : words.stream();
+    }
+
+    @Benchmark
+    public byte[] collectorsJoiningBytes() {
+        return words().collect(Collectors.joining(",", "[", "]")).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] byteJoinerBytes() {
+        return words().collect(ByteJoiner.joining(",", "[", "]", Long.MAX_VALUE)).toByteArray();
+    }
+
+    @Benchmark
+    public long byteJoinerWriteTo() {
+        ByteJoiner joiner = words().collect(ByteJoiner.joining(",", "[", "]", Long.MAX_VALUE));
+        joiner.writeTo(OutputStream.nullOutputStream());
+        return joiner.length();
+    }
+
+    @Benchmark
+    public long byteJoinerStreaming() {
+        try (ByteJoiner joiner = ByteJoiner.writingTo(OutputStream.nullOutputStream(), ",", "[", "]")) {
+            words().forEachOrdered(joiner::add);
+            return joiner.length();
+        }
+    }
+}
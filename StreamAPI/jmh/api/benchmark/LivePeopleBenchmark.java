@@ -0,0 +1,52 @@
+package api.benchmark;
+
+import api.live.LivePeople;
+import api.methods.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A dashboard query after a small change: one setAge(), then the adult count and the average age, either
+ * recomputed with two streams over all people or read from the live aggregates of LivePeople.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class LivePeopleBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    List<Person> people;
+    LivePeople live;
+    SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        people = Datasets.people(size);
+        live = new LivePeople(people);
+        random = new SplittableRandom(Datasets.SEED);
+    }
+
+    private void change() {
+        people.get(random.nextInt(size)).setAge(random.nextInt(0, 90));
+    }
+
+    @Benchmark
+    public double recompute() {
+        change();
+        long adults = people.stream().filter(Person::isAdult).count();
+        return adults + people.stream().mapToInt(Person::getAge).average().orElse(Double.NaN);
+    }
+
+    @Benchmark
+    public double live() {
+        change();
+        return live.getAdultCount() + live.getAverageAge();
+    }
+}
@@ -0,0 +1,107 @@
+package api.benchmark;
+
+import api.mapped.MappedRecords;
+import api.methods.Employee;
+import api.methods.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reading name,age and name,salary CSV files: Files.lines() plus split() against MappedRecords,
+ * both as objects (people()/employees()) and as primitive columns (ints()/doubles()).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class MappedRecordsBenchmark {
+    @Param({"100000", "1000000"})
+    int size;
+
+    Path peopleFile;
+    Path employeesFile;
+    MappedRecords people;
+    MappedRecords employees;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        peopleFile = Files.createTempFile("people-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(peopleFile)) {
+            writer.write("name,age\n");
+            for (Person person : Datasets.people(size)) {
+                writer.write(person.getName() + "," + person.getAge() + "\n");
+            }
+        }
+        employeesFile = Files.createTempFile("employees-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(employeesFile)) {
+            writer.write("name,salary\n");
+            for (Employee employee : Datasets.employees(size)) {
+                writer.write(employee.getName() + "," + employee.getSalary() + "\n");
+            }
+        }
+        people = MappedRecords.open(peopleFile);
+        employees = MappedRecords.open(employeesFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(peopleFile);
+        Files.deleteIfExists(employeesFile);
+    }
+
+    private static Stream<String> lines(Path file) {
+        try {
+            return Files.lines(file).skip(1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public long linesAdults() {
+        try (Stream<String> lines = lines(peopleFile)) {
+            return lines.map(line -> line.split(","))
+                    .map(fields -> new Person(fields[0], Integer.parseInt(fields[1])))
+                    .filter(Person::isAdult)
+                    .count();
+        }
+    }
+
+    @Benchmark
+    public long mappedAdults() {
+        return people.people().filter(Person::isAdult).count();
+    }
+
+    @Benchmark
+    public double linesAverageAge() {
+        try (Stream<String> lines = lines(peopleFile)) {
+            return lines.mapToInt(line -> Integer.parseInt(line.split(",")[1])).average().orElse(0);
+        }
+    }
+
+    @Benchmark
+    public double mappedAverageAge() {
+        return people.ints(1).average().orElse(0);
+    }
+
+    @Benchmark
+    public double linesSalarySum() {
+        try (Stream<String> lines = lines(employeesFile)) {
+            return lines.mapToDouble(line -> Double.parseDouble(line.split(",")[1])).sum();
+        }
+    }
+
+    @Benchmark
+    public double mappedSalarySum() {
+        return employees.doubles(1).sum();
+    }
+}
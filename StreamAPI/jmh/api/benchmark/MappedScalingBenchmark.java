@@ -0,0 +1,85 @@
+package api.benchmark;
+
+import api.mapped.MappedRecords;
+import api.methods.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Scaling of parallel() over a large memory-mapped name,age file with 1 to 8 worker threads:
+ * count, sum and groupBy. Every run uses its own ForkJoinPool, so the results do not depend on the size of
+ * the common pool. The file is written once to java.io.tmpdir and reused by later runs; size it with
+ * -p megabytes=... (the default 5 GB needs as much free disk, and as much free RAM to stay in the page cache).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class MappedScalingBenchmark {
+    @Param({"5120"})
+    int megabytes;
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    MappedRecords records;
+    ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path file = Path.of(System.getProperty("java.io.tmpdir"), "mapped-scaling-" + megabytes + "mb.csv");
+        if (!Files.exists(file)) {
+            write(file, (long) megabytes << 20);
+        }
+        records = MappedRecords.open(file);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static void write(Path file, long bytes) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        SplittableRandom random = new SplittableRandom(Datasets.SEED);
+        try (BufferedWriter writer = Files.newBufferedWriter(partial)) {
+            writer.write("name,age\n");
+            long written = 0;
+            while (written < bytes) {
+                String line = Datasets.NAMES[random.nextInt(Datasets.NAMES.length)] + "," + random.nextInt(0, 90) + "\n";
+                writer.write(line);
+                written += line.length();
+            }
+        }
+        Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Benchmark
+    public long count() {
+        return pool.submit(() -> records.ints(1).parallel().count()).join();
+    }
+
+    @Benchmark
+    public long sum() {
+        return pool.submit(() -> records.longs(1).parallel().sum()).join();
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupBy() {
+        return pool.submit(() -> records.people().parallel()
+                .collect(Collectors.groupingBy(Person::getAge, Collectors.counting()))).join();
+    }
+}
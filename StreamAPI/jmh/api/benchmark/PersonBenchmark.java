@@ -0,0 +1,53 @@
+package api.benchmark;
+
+import api.methods.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Person pipelines from API.filter() and API.groupBy().
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class PersonBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<Person> people;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        people = Datasets.people(size);
+    }
+
+    private Stream<Person> people() {
+        return parallel ? people.parallelStream() : people.stream();
+    }
+
+    @Benchmark
+    public List<Person> filter() {
+        return people().filter(Person::isAdult).toList();
+    }
+
+    @Benchmark
+    public Map<Integer, List<Person>> groupBy() {
+        return people().collect(Collectors.groupingBy(Person::getAge));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupByCounting() {
+        return people().collect(Collectors.groupingBy(Person::getAge, Collectors.counting()));
+    }
+}
@@ -0,0 +1,89 @@
+package api.benchmark;
+
+import api.methods.Person;
+import api.metrics.Pipeline;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The cost of Pipeline instrumentation on filter/map/groupingBy over people: no wrappers at all, a disabled
+ * pipeline (must match plain), an enabled pipeline, and one that also tracks allocations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+    @Param({"100000", "1000000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<Person> people;
+    Stages disabled;
+    Stages enabled;
+    Stages allocations;
+
+    /**
+     * The wrapped stage functions, created once: every filter()/map()/collect() call adds a stage.
+     */
+    static final class Stages {
+        final Predicate<Person> adult;
+        final Function<Person, Integer> age;
+        final Collector<Integer, ?, Map<Integer, Long>> count;
+
+        Stages(Pipeline pipeline) {
+            adult = pipeline.filter("adult", Person::isAdult);
+            age = pipeline.map("age", Person::getAge);
+            count = pipeline.collect("count", Collectors.groupingBy(key -> key, Collectors.counting()));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        people = Datasets.people(size);
+        disabled = new Stages(Pipeline.disabled("benchmark"));
+        enabled = new Stages(Pipeline.instrumented("benchmark"));
+        allocations = new Stages(Pipeline.instrumented("benchmark").trackingAllocations());
+    }
+
+    private Stream<Person> people() {
+        return parallel ? people.parallelStream() : people.stream();
+    }
+
+    private Map<Integer, Long> run(Stages stages) {
+        return people().filter(stages.adult).map(stages.age).collect(stages.count);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> plain() {
+        return people().filter(Person::isAdult).map(Person::getAge)
+                .collect(Collectors.groupingBy(key -> key, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> disabled() {
+        return run(disabled);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> enabled() {
+        return run(enabled);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> trackingAllocations() {
+        return run(allocations);
+    }
+}
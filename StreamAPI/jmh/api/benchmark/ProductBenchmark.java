@@ -0,0 +1,41 @@
+package api.benchmark;
+
+import api.methods.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Product pipeline from API.distinct(), which hashes every element through Product.hashCode().
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ProductBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = Datasets.products(size);
+    }
+
+    private Stream<Product> products() {
+        return parallel ? products.parallelStream() : products.stream();
+    }
+
+    @Benchmark
+    public List<Product> distinct() {
+        return products().distinct().toList();
+    }
+}
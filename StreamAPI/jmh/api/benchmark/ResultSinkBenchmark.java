@@ -0,0 +1,94 @@
+package api.benchmark;
+
+import api.sink.NoopSink;
+import api.sink.ResultSink;
+import api.sink.TextSink;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Writing every result to a file: forEach(printStream::println) with an autoflushing PrintStream (how System.out
+ * behaves on a console) against the batched TextSink, unordered (forEach) and ordered (acceptAll), and the
+ * no-op sink. The file is truncated before every iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ResultSinkBenchmark {
+    @Param({"10000", "100000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<String> words;
+    Path file;
+    FileChannel channel;
+    PrintStream printStream;
+    TextSink<String> sink;
+    NoopSink<String> noop;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        words = Datasets.words(size);
+        file = Files.createTempFile("sink-", ".txt");
+        printStream = new PrintStream(new BufferedOutputStream(new FileOutputStream(file.toFile())), true);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        sink = new TextSink<>(channel, null, false);
+        noop = ResultSink.noop();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        printStream.close();
+        sink.close();
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    private Stream<String> words() {
+        return parallel ? words.parallelStream() : words.stream();
+    }
+
+    @Benchmark
+    public void printlnForEach() {
+        words().forEach(printStream::println);
+    }
+
+    @Benchmark
+    public void sinkForEach() {
+        words().forEach(sink);
+        sink.flush();
+    }
+
+    @Benchmark
+    public void sinkAcceptAllOrdered() {
+        sink.acceptAll(words());
+    }
+
+    @Benchmark
+    public long noopSink() {
+        words().forEach(noop);
+        return noop.getCount();
+    }
+}
@@ -0,0 +1,49 @@
+package api.benchmark;
+
+import api.methods.Employee;
+import api.statistics.DoubleStatistics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Salary statistics with percentiles: DoubleSummaryStatistics plus a sort, against one DoubleStatistics pass.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    int size;
+
+    List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = Datasets.employees(size);
+    }
+
+    @Benchmark
+    public double summaryStatisticsAndSortedP95() {
+        DoubleSummaryStatistics stats = employees.stream().mapToDouble(Employee::getSalary).summaryStatistics();
+        double[] sorted = employees.stream().mapToDouble(Employee::getSalary).sorted().toArray();
+        return stats.getAverage() + sorted[(int) (0.95 * (sorted.length - 1))];
+    }
+
+    @Benchmark
+    public double doubleStatisticsP95() {
+        DoubleStatistics stats = employees.stream().collect(DoubleStatistics.summarizing(Employee::getSalary));
+        return stats.getAverage() + stats.getP95();
+    }
+
+    @Benchmark
+    public double doubleStatisticsP95Parallel() {
+        DoubleStatistics stats = employees.parallelStream().collect(DoubleStatistics.summarizing(Employee::getSalary));
+        return stats.getAverage() + stats.getP95();
+    }
+}
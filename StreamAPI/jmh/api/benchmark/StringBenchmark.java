@@ -0,0 +1,60 @@
+package api.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * String pipelines from API.reduce(), API.flatMap(), API.concatStringByComma() and API.collectors().
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class StringBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    List<String> words;
+    List<List<String>> nested;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Datasets.words(size);
+        nested = Datasets.nestedWords(size);
+    }
+
+    private <T> Stream<T> stream(List<T> list) {
+        return parallel ? list.parallelStream() : list.stream();
+    }
+
+    @Benchmark
+    public Optional<String> reduce() {
+        return stream(words).reduce((a, b) -> a.length() > b.length() ? a : b);
+    }
+
+    @Benchmark
+    public List<String> flatMap() {
+        return stream(nested).flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public String concatStringByComma() {
+        return stream(words).collect(Collectors.joining(","));
+    }
+
+    @Benchmark
+    public ArrayList<String> collectors() {
+        return stream(words).collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+}
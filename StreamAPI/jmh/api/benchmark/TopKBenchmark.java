@@ -0,0 +1,53 @@
+package api.benchmark;
+
+import api.collectors.TopK;
+import api.methods.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The 100 lowest-paid employees: sorted().limit(k) against the bounded-heap TopK collectors.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    int size;
+
+    @Param({"100"})
+    int k;
+
+    List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = Datasets.employees(size);
+    }
+
+    @Benchmark
+    public List<Employee> sortedLimit() {
+        return employees.stream().sorted(Comparator.comparingDouble(Employee::getSalary)).limit(k).toList();
+    }
+
+    @Benchmark
+    public List<Employee> topKComparator() {
+        return employees.stream().collect(TopK.smallest(k, Comparator.comparingDouble(Employee::getSalary)));
+    }
+
+    @Benchmark
+    public List<Employee> topKDoubleKey() {
+        return employees.stream().collect(TopK.smallestBy(k, Employee::getSalary));
+    }
+
+    @Benchmark
+    public List<Employee> topKDoubleKeyParallel() {
+        return employees.parallelStream().collect(TopK.smallestBy(k, Employee::getSalary));
+    }
+}
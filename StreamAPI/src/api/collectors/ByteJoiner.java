@@ -0,0 +1,423 @@
+package api.collectors;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Joins CharSequences into UTF-8 bytes, like Collectors.joining() but without ever copying what was already
+ * joined.
+ * reduce((a, b) -> a + "," + b) copies the whole string built so far on every element, which is quadratic in
+ * the total length. Collectors.joining() is linear but holds on to every element, builds a String, and then
+ * getBytes() copies it again for output. A ByteJoiner encodes every element once, into a list of byte[] chunks:
+ * 1. add() appends to the last chunk and starts a new, larger one when it is full. Nothing is ever moved.
+ * 2. merge() (the combiner under parallel()) links the other joiner's chunks after its own: O(number of chunks),
+ *    no byte is copied.
+ * 3. writeTo() hands the chunks to an OutputStream or a channel one by one; toByteArray() and toString() copy
+ *    them once into the final result.
+ * Prefix and suffix are added on output, like StringJoiner. An optional size limit (in bytes, prefix and suffix
+ * included) stops the joiner once the next element would not fit: the output holds whole elements only, and
+ * isTruncated() and getSkipped() tell what was left out. Under parallel() a part that does not fit after a merge
+ * is dropped as a whole, so the result is still a prefix of the elements in encounter order within the limit,
+ * though possibly a shorter one than a sequential run would give.
+ * Streaming export: writingTo() creates a joiner that writes every full chunk straight to an OutputStream or
+ * channel, so memory stays at one chunk however many elements are added:
+ *      try (ByteJoiner joiner = ByteJoiner.writingTo(out, ",", "[", "]")) {
+ *          ids.forEachOrdered(joiner::add);
+ *      }
+ * Such a joiner cannot be merged. Joiners are not thread-safe.
+ */
+public final class ByteJoiner implements AutoCloseable {
+    private static final int FIRST_CHUNK_BYTES = 256;
+    private static final int MAX_CHUNK_BYTES = 1 << 16;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final byte[] delimiter;
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final long maxBytes;
+    private final WritableByteChannel sink;
+    private final List<byte[]> chunks = new ArrayList<>();
+    private final List<Integer> lengths = new ArrayList<>();
+    private byte[] chunk;
+    private int used;
+    private long length;
+    private long count;
+    private long skipped;
+    private boolean started;
+    private boolean finished;
+
+    public ByteJoiner(CharSequence delimiter) {
+        this(delimiter, "", "", Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxBytes the most bytes the output may have, prefix and suffix included
+     */
+    public ByteJoiner(CharSequence delimiter, CharSequence prefix, CharSequence suffix, long maxBytes) {
+        this(delimiter, prefix, suffix, maxBytes, null);
+    }
+
+    private ByteJoiner(CharSequence delimiter, CharSequence prefix, CharSequence suffix, long maxBytes,
+                       WritableByteChannel sink) {
+        this.delimiter = utf8(delimiter);
+        this.prefix = utf8(prefix);
+        this.suffix = utf8(suffix);
+        if (maxBytes < this.prefix.length + this.suffix.length) {
+            throw new IllegalArgumentException("maxBytes " + maxBytes + " cannot even hold the prefix and suffix");
+        }
+        this.maxBytes = maxBytes;
+        this.sink = sink;
+    }
+
+    /**
+     * A joiner that streams to out as it goes; close() writes the rest and the suffix but leaves out open.
+     */
+    public static ByteJoiner writingTo(OutputStream out, CharSequence delimiter, CharSequence prefix,
+                                       CharSequence suffix) {
+        return writingTo(Channels.newChannel(out), delimiter, prefix, suffix);
+    }
+
+    public static ByteJoiner writingTo(WritableByteChannel channel, CharSequence delimiter, CharSequence prefix,
+                                       CharSequence suffix) {
+        return new ByteJoiner(delimiter, prefix, suffix, Long.MAX_VALUE, channel);
+    }
+
+    /**
+     * Collector to a ByteJoiner; use toString(), toByteArray() or writeTo() on the result.
+     */
+    public static Collector<CharSequence, ?, ByteJoiner> joining(CharSequence delimiter) {
+        return joining(delimiter, "", "", Long.MAX_VALUE);
+    }
+
+    public static Collector<CharSequence, ?, ByteJoiner> joining(CharSequence delimiter, CharSequence prefix,
+                                                                 CharSequence suffix, long maxBytes) {
+        return Collector.of(
+                () -> new ByteJoiner(delimiter, prefix, suffix, maxBytes),
+                ByteJoiner::add,
+                ByteJoiner::merge,
+                Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+
+    /**
+     * Drop-in for Collectors.joining(delimiter).
+     */
+    public static Collector<CharSequence, ?, String> joiningToString(CharSequence delimiter) {
+        return Collector.of(
+                () -> new ByteJoiner(delimiter),
+                ByteJoiner::add,
+                ByteJoiner::merge,
+                ByteJoiner::toString
+        );
+    }
+
+    public ByteJoiner add(CharSequence element) {
+        if (finished) {
+            throw new IllegalStateException("Joiner is already closed");
+        }
+        if (skipped > 0) {
+            skipped++;
+            return this;
+        }
+        if (maxBytes != Long.MAX_VALUE) {
+            long needed = (count > 0 ? delimiter.length : 0) + utf8Length(element);
+            if (prefix.length + length + needed + suffix.length > maxBytes) {
+                skipped++;
+                return this;
+            }
+        }
+        if (count > 0) {
+            put(delimiter);
+        }
+        encode(element);
+        count++;
+        return this;
+    }
+
+    /**
+     * Appends other's elements after this joiner's, by linking other's chunks. other must not be used afterwards.
+     */
+    public ByteJoiner merge(ByteJoiner other) {
+        if (sink != null || other.sink != null) {
+            throw new IllegalStateException("A joiner that writes to a stream cannot be merged");
+        }
+        if (other.count == 0 || skipped > 0) {
+            skipped += other.count + other.skipped;
+            return this;
+        }
+        long needed = (count > 0 ? delimiter.length : 0) + other.length;
+        if (prefix.length + length + needed + suffix.length > maxBytes) {
+            skipped += other.count + other.skipped;
+            return this;
+        }
+        if (count > 0) {
+            put(delimiter);
+        }
+        seal();
+        chunks.addAll(other.chunks);
+        lengths.addAll(other.lengths);
+        // Keep appending into other's last chunk: it is ours now and may still have room.
+        chunk = other.chunk;
+        used = other.used;
+        length += other.length;
+        count += other.count;
+        skipped += other.skipped;
+        return this;
+    }
+
+    /**
+     * Number of elements joined.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Number of elements left out because of the size limit.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public boolean isTruncated() {
+        return skipped > 0;
+    }
+
+    /**
+     * Length in bytes of the output, prefix and suffix included.
+     */
+    public long length() {
+        return prefix.length + length + suffix.length;
+    }
+
+    public byte[] toByteArray() {
+        requireBuffered();
+        long total = length();
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Joined output of " + total + " bytes does not fit in an array; use writeTo()");
+        }
+        byte[] result = new byte[(int) total];
+        System.arraycopy(prefix, 0, result, 0, prefix.length);
+        int position = prefix.length;
+        for (int i = 0; i < chunks.size(); i++) {
+            System.arraycopy(chunks.get(i), 0, result, position, lengths.get(i));
+            position += lengths.get(i);
+        }
+        if (chunk != null) {
+            System.arraycopy(chunk, 0, result, position, used);
+            position += used;
+        }
+        System.arraycopy(suffix, 0, result, position, suffix.length);
+        return result;
+    }
+
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(toByteArray());
+    }
+
+    @Override
+    public String toString() {
+        return new String(toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public void writeTo(OutputStream out) {
+        writeTo(Channels.newChannel(out));
+    }
+
+    /**
+     * Writes prefix, chunks and suffix to channel without joining them first.
+     */
+    public void writeTo(WritableByteChannel channel) {
+        requireBuffered();
+        write(channel, prefix, prefix.length);
+        for (int i = 0; i < chunks.size(); i++) {
+            write(channel, chunks.get(i), lengths.get(i));
+        }
+        if (chunk != null) {
+            write(channel, chunk, used);
+        }
+        write(channel, suffix, suffix.length);
+    }
+
+    /**
+     * For a joiner created by writingTo(): writes what is still buffered and the suffix. Further calls do nothing.
+     */
+    @Override
+    public void close() {
+        if (sink == null || finished) {
+            return;
+        }
+        finished = true;
+        writeStartIfNeeded();
+        if (chunk != null) {
+            write(sink, chunk, used);
+            used = 0;
+        }
+        write(sink, suffix, suffix.length);
+    }
+
+    private void requireBuffered() {
+        if (sink != null) {
+            throw new IllegalStateException("This joiner writes to a stream; close() it instead");
+        }
+    }
+
+    private void writeStartIfNeeded() {
+        if (!started) {
+            started = true;
+            write(sink, prefix, prefix.length);
+        }
+    }
+
+    private static void write(WritableByteChannel channel, byte[] bytes, int length) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write joined output", e);
+        }
+    }
+
+    /**
+     * Moves the current chunk into the chunk list; the next write starts a new chunk.
+     */
+    private void seal() {
+        if (chunk != null && used > 0) {
+            chunks.add(chunk);
+            lengths.add(used);
+        }
+        chunk = null;
+        used = 0;
+    }
+
+    /**
+     * Makes room for at least one more byte: a new chunk, twice the size of the last one, up to MAX_CHUNK_BYTES.
+     * A streaming joiner writes the full chunk out and reuses it instead.
+     */
+    private void grow() {
+        if (sink != null && chunk != null) {
+            writeStartIfNeeded();
+            write(sink, chunk, used);
+            used = 0;
+            return;
+        }
+        int size = sink != null ? MAX_CHUNK_BYTES
+                : chunk == null ? FIRST_CHUNK_BYTES : Math.min(MAX_CHUNK_BYTES, 2 * chunk.length);
+        seal();
+        chunk = new byte[size];
+    }
+
+    private void put(byte[] bytes) {
+        if (chunk != null && chunk.length - used >= bytes.length) {
+            // Delimiters are usually a byte or two: a loop beats System.arraycopy at that size.
+            for (byte b : bytes) {
+                chunk[used++] = b;
+            }
+            length += bytes.length;
+            return;
+        }
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (chunk == null || used == chunk.length) {
+                grow();
+            }
+            int n = Math.min(bytes.length - offset, chunk.length - used);
+            System.arraycopy(bytes, offset, chunk, used, n);
+            used += n;
+            offset += n;
+        }
+        length += bytes.length;
+    }
+
+    private void putByte(int b) {
+        if (chunk == null || used == chunk.length) {
+            grow();
+        }
+        chunk[used++] = (byte) b;
+        length++;
+    }
+
+    /**
+     * UTF-8 encodes element straight into the chunks; unpaired surrogates become '?' like String.getBytes().
+     */
+    private void encode(CharSequence element) {
+        int n = element.length();
+        int i = 0;
+        if (chunk != null && chunk.length - used >= n) {
+            // Fast path: the whole element fits if it is ASCII, so copy chars until the first non-ASCII one
+            // without checking for room on every byte.
+            byte[] target = chunk;
+            int base = used;
+            for (; i < n; i++) {
+                char c = element.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                target[base + i] = (byte) c;
+            }
+            used += i;
+            length += i;
+        }
+        for (; i < n; i++) {
+            char c = element.charAt(i);
+            if (c < 0x80) {
+                if (chunk != null && used < chunk.length) {
+                    chunk[used++] = (byte) c;
+                    length++;
+                } else {
+                    putByte(c);
+                }
+            } else if (c < 0x800) {
+                putByte(0xC0 | (c >> 6));
+                putByte(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(element.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, element.charAt(++i));
+                putByte(0xF0 | (codePoint >> 18));
+                putByte(0x80 | ((codePoint >> 12) & 0x3F));
+                putByte(0x80 | ((codePoint >> 6) & 0x3F));
+                putByte(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                putByte('?');
+            } else {
+                putByte(0xE0 | (c >> 12));
+                putByte(0x80 | ((c >> 6) & 0x3F));
+                putByte(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(CharSequence element) {
+        int n = element.length();
+        int bytes = 0;
+        for (int i = 0; i < n; i++) {
+            char c = element.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(element.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static byte[] utf8(CharSequence text) {
+        return text.length() == 0 ? EMPTY : text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,187 @@
+package api.collectors;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collector;
+
+/**
+ * An append-only buffer for collecting stream results, built for the supplier/accumulator/combiner form of
+ * collect():
+ *      List<String> result = emails.parallelStream().filter(...).collect(ChunkedBuffer.toList());
+ *      emails.parallelStream().filter(...).collect(ChunkedBuffer<String>::new, ChunkedBuffer::add, ChunkedBuffer::merge);
+ * With ArrayList::new, ArrayList::add, ArrayList::addAll every combine copies the right list into the left one,
+ * so under parallel() an element is copied once per level of the split tree (about log2(parts) times) and every
+ * list regrows (copying again) as it fills. This buffer stores elements in a chain of arrays instead:
+ * 1. add() writes into the last array and links a new one when it is full; nothing is moved.
+ * 2. merge() links the other buffer's arrays after its own: O(1), no element is copied.
+ * 3. At the end, asList() gives a read-only RandomAccess List over the arrays without copying, and
+ *    toArray(String[]::new) copies every element exactly once into an array of exactly size() elements.
+ * IntChunkedBuffer, LongChunkedBuffer and DoubleChunkedBuffer do the same for primitives without boxing.
+ * This helps when the size of the result is not known in advance (after a filter() or flatMap()); for a SIZED
+ * pipeline, Stream.toList() and toArray() already write straight into one array of the right size.
+ * Buffers are not thread-safe; under parallel() every part of the stream has its own.
+ */
+public final class ChunkedBuffer<T> extends Chunks<Object[]> {
+    public ChunkedBuffer() {
+    }
+
+    /**
+     * Collector to a read-only List view of the buffer; like Stream.toList(), the list rejects changes.
+     */
+    public static <T> Collector<T, ?, List<T>> toList() {
+        return Collector.of(ChunkedBuffer<T>::new, ChunkedBuffer::add, ChunkedBuffer::merge, ChunkedBuffer::asList);
+    }
+
+    /**
+     * Collector to an array of exactly the number of elements, e.g. collectingToArray(String[]::new).
+     */
+    public static <T> Collector<T, ?, T[]> collectingToArray(IntFunction<T[]> generator) {
+        return Collector.of(ChunkedBuffer<T>::new, ChunkedBuffer::add, ChunkedBuffer::merge,
+                buffer -> buffer.toArray(generator));
+    }
+
+    @Override
+    Object[] newArray(int length) {
+        return new Object[length];
+    }
+
+    public void add(T element) {
+        Object[] items = current;
+        if (used == items.length) {
+            items = grow();
+        }
+        items[used++] = element;
+    }
+
+    /**
+     * Appends the elements of other after the elements of this buffer, in O(1); other is left empty.
+     */
+    public ChunkedBuffer<T> merge(ChunkedBuffer<T> other) {
+        link(other);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        for (Chunk<Object[]> chunk = first(); chunk != null; chunk = chunk.next) {
+            for (int i = 0; i < chunk.used; i++) {
+                action.accept((T) chunk.items[i]);
+            }
+        }
+    }
+
+    public T[] toArray(IntFunction<T[]> generator) {
+        T[] result = generator.apply(arraySize());
+        copyTo(result);
+        return result;
+    }
+
+    /**
+     * A read-only view of the elements added so far; elements added or merged afterwards are not part of it.
+     */
+    public List<T> asList() {
+        int size = arraySize();
+        List<Object[]> arrays = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        for (Chunk<Object[]> chunk = first(); chunk != null; chunk = chunk.next) {
+            if (chunk.used > 0) {
+                arrays.add(chunk.items);
+                lengths.add(chunk.used);
+            }
+        }
+        return new ChunkList<>(arrays.toArray(new Object[0][]), lengths, size);
+    }
+
+    /**
+     * The List returned by asList(): the chunk arrays and the index of the first element of each one.
+     * get() binary-searches the starts (a few steps: the chunks double in size up to MAX_CHUNK); iteration,
+     * forEach() and toArray() walk the arrays directly.
+     */
+    private static final class ChunkList<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[][] arrays;
+        private final int[] starts;
+        private final int size;
+
+        ChunkList(Object[][] arrays, List<Integer> lengths, int size) {
+            this.arrays = arrays;
+            this.starts = new int[arrays.length + 1];
+            for (int i = 0; i < arrays.length; i++) {
+                starts[i + 1] = starts[i] + lengths.get(i);
+            }
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            int chunk = Arrays.binarySearch(starts, 0, arrays.length, index);
+            if (chunk < 0) {
+                chunk = -chunk - 2;
+            }
+            return (T) arrays[chunk][index - starts[chunk]];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(Consumer<? super T> action) {
+            for (int chunk = 0; chunk < arrays.length; chunk++) {
+                Object[] items = arrays[chunk];
+                for (int i = 0, length = starts[chunk + 1] - starts[chunk]; i < length; i++) {
+                    action.accept((T) items[i]);
+                }
+            }
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private int chunk;
+                private int offset;
+                private int remaining = size;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    if (offset == starts[chunk + 1] - starts[chunk]) {
+                        chunk++;
+                        offset = 0;
+                    }
+                    remaining--;
+                    return (T) arrays[chunk][offset++];
+                }
+            };
+        }
+
+        @Override
+        public Object[] toArray() {
+            Object[] result = new Object[size];
+            for (int chunk = 0; chunk < arrays.length; chunk++) {
+                System.arraycopy(arrays[chunk], 0, result, starts[chunk], starts[chunk + 1] - starts[chunk]);
+            }
+            return result;
+        }
+    }
+}
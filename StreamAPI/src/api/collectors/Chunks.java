@@ -0,0 +1,114 @@
+package api.collectors;
+
+/**
+ * The storage shared by ChunkedBuffer and its int, long and double variants: a singly linked list of arrays
+ * ("chunks") of one element type A (Object[], int[], long[] or double[]).
+ * 1. Appending writes into the last chunk, current, at position used. When it is full a new chunk is linked
+ *    after it, as large as everything stored so far (between FIRST_CHUNK and MAX_CHUNK slots), so nothing is
+ *    ever copied or regrown and no chunk is large enough to be a humongous allocation.
+ * 2. merge() links the other buffer's chunks after the last one of this buffer: O(1), whatever the sizes.
+ *    The chunk that was last keeps its free slots unused.
+ * The used count of the last chunk lives in the field used; earlier chunks keep theirs in Chunk.used.
+ */
+abstract class Chunks<A> {
+    static final int FIRST_CHUNK = 16;
+    static final int MAX_CHUNK = 1 << 14;
+
+    static final class Chunk<A> {
+        final A items;
+        int used;
+        Chunk<A> next;
+
+        Chunk(A items) {
+            this.items = items;
+        }
+    }
+
+    private Chunk<A> head;
+    private Chunk<A> tail;
+    private long sealed;
+    A current;
+    int used;
+
+    Chunks() {
+        head = tail = new Chunk<>(newArray(FIRST_CHUNK));
+        current = tail.items;
+    }
+
+    abstract A newArray(int length);
+
+    /**
+     * Links a new chunk after the full current one and returns it; called by add() when used == length.
+     */
+    final A grow() {
+        tail.used = used;
+        sealed += used;
+        Chunk<A> chunk = new Chunk<>(newArray((int) Math.min(MAX_CHUNK, Math.max(FIRST_CHUNK, sealed))));
+        tail.next = chunk;
+        tail = chunk;
+        used = 0;
+        current = chunk.items;
+        return current;
+    }
+
+    /**
+     * Moves all chunks of other after the chunks of this buffer; other is left empty.
+     */
+    final void link(Chunks<A> other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge a buffer into itself");
+        }
+        if (other.size() == 0) {
+            return;
+        }
+        tail.used = used;
+        other.tail.used = other.used;
+        tail.next = other.head;
+        sealed += used + other.sealed;
+        tail = other.tail;
+        current = other.current;
+        used = other.used;
+        other.head = other.tail = new Chunk<>(other.newArray(FIRST_CHUNK));
+        other.current = other.tail.items;
+        other.sealed = 0;
+        other.used = 0;
+    }
+
+    public final long size() {
+        return sealed + used;
+    }
+
+    public final boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * The size as an int, for results backed by a single array.
+     */
+    final int arraySize() {
+        long size = size();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException(size + " elements do not fit in an array");
+        }
+        return (int) size;
+    }
+
+    /**
+     * The first chunk, with Chunk.used up to date on every chunk, for walking the elements.
+     */
+    final Chunk<A> first() {
+        tail.used = used;
+        return head;
+    }
+
+    /**
+     * Copies all elements, in order, into target (an array of the same type and at least size() long).
+     */
+    final void copyTo(A target) {
+        int position = 0;
+        for (Chunk<A> chunk = first(); chunk != null; chunk = chunk.next) {
+            System.arraycopy(chunk.items, 0, target, position, chunk.used);
+            position += chunk.used;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package api.collectors;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+
+/**
+ * ChunkedBuffer for double values: a chain of double[] chunks, so adding never boxes or regrows and merge()
+ * is O(1).
+ *      double[] salaries = employees.parallelStream().collect(DoubleChunkedBuffer.collecting(Employee::getSalary));
+ *      Map<String, double[]> salariesByName = employees.stream()
+ *              .collect(Collectors.groupingBy(Employee::getName, DoubleChunkedBuffer.collecting(Employee::getSalary)));
+ *      doubles.collect(DoubleChunkedBuffer::new, DoubleChunkedBuffer::add, DoubleChunkedBuffer::merge);
+ * The second form is the one mapToDouble() cannot express: a primitive downstream collector. toArray() copies the
+ * values once into a double[] of exactly size() elements.
+ */
+public final class DoubleChunkedBuffer extends Chunks<double[]> {
+    public DoubleChunkedBuffer() {
+    }
+
+    /**
+     * Collector to a double[] of the mapped values, in encounter order.
+     */
+    public static <T> Collector<T, ?, double[]> collecting(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(
+                DoubleChunkedBuffer::new,
+                (buffer, element) -> buffer.add(mapper.applyAsDouble(element)),
+                DoubleChunkedBuffer::merge,
+                DoubleChunkedBuffer::toArray
+        );
+    }
+
+    @Override
+    double[] newArray(int length) {
+        return new double[length];
+    }
+
+    public void add(double value) {
+        double[] items = current;
+        if (used == items.length) {
+            items = grow();
+        }
+        items[used++] = value;
+    }
+
+    /**
+     * Appends the values of other after the values of this buffer, in O(1); other is left empty.
+     */
+    public DoubleChunkedBuffer merge(DoubleChunkedBuffer other) {
+        link(other);
+        return this;
+    }
+
+    public void forEach(DoubleConsumer action) {
+        for (Chunk<double[]> chunk = first(); chunk != null; chunk = chunk.next) {
+            for (int i = 0; i < chunk.used; i++) {
+                action.accept(chunk.items[i]);
+            }
+        }
+    }
+
+    public double[] toArray() {
+        double[] result = new double[arraySize()];
+        copyTo(result);
+        return result;
+    }
+
+    /**
+     * The values added so far, read straight from the chunks.
+     */
+    public DoubleStream stream() {
+        Stream.Builder<Chunk<double[]>> chunks = Stream.builder();
+        for (Chunk<double[]> chunk = first(); chunk != null; chunk = chunk.next) {
+            chunks.add(chunk);
+        }
+        return chunks.build().flatMapToDouble(chunk -> Arrays.stream(chunk.items, 0, chunk.used));
+    }
+}
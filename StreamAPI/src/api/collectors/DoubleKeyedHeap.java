@@ -0,0 +1,133 @@
+package api.collectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A bounded binary heap that keeps the k best (key, value) pairs by a primitive double key.
+ * The root is the worst pair kept so far, so a new pair is either rejected with one comparison or replaces the
+ * root in O(log k). Keys stay in a double[], so comparing never unboxes or calls a Comparator.
+ * int keys are stored as doubles, which represents every int exactly.
+ * The arrays grow on demand up to k, so a large k over a short stream does not allocate k slots up front.
+ */
+final class DoubleKeyedHeap<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int k;
+    private final boolean largest;
+    private double[] keys;
+    private Object[] values;
+    private int size;
+
+    DoubleKeyedHeap(int k, boolean largest) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        this.largest = largest;
+        int capacity = Math.min(k, INITIAL_CAPACITY);
+        this.keys = new double[capacity];
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * True when key a ranks before key b in the result.
+     */
+    private boolean better(double a, double b) {
+        int cmp = Double.compare(a, b);
+        return largest ? cmp > 0 : cmp < 0;
+    }
+
+    void offer(double key, T value) {
+        if (size < k) {
+            if (size == keys.length) {
+                int capacity = (int) Math.min(k, 2L * keys.length);
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            siftUp(size++, key, value);
+        } else if (k > 0 && better(key, keys[0])) {
+            // Strictly better only: a pair equal to the worst kept one never displaces it.
+            siftDown(0, key, value);
+        }
+    }
+
+    DoubleKeyedHeap<T> merge(DoubleKeyedHeap<T> other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.keys[i], other.value(i));
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T value(int index) {
+        return (T) values[index];
+    }
+
+    private void siftUp(int index, double key, T value) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(keys[parent], key)) {
+                break;
+            }
+            keys[index] = keys[parent];
+            values[index] = values[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    private void siftDown(int index, double key, T value) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && better(keys[child], keys[right])) {
+                child = right;
+            }
+            if (!better(key, keys[child])) {
+                break;
+            }
+            keys[index] = keys[child];
+            values[index] = values[child];
+            index = child;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /**
+     * Positions of the kept pairs, best first.
+     */
+    private Integer[] order() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> largest ? Double.compare(keys[b], keys[a]) : Double.compare(keys[a], keys[b]));
+        return order;
+    }
+
+    List<T> sortedValues() {
+        List<T> result = new ArrayList<>(size);
+        for (int index : order()) {
+            result.add(value(index));
+        }
+        return result;
+    }
+
+    double[] sortedKeys() {
+        double[] result = Arrays.copyOf(keys, size);
+        Arrays.sort(result);
+        if (largest) {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                double tmp = result[i];
+                result[i] = result[j];
+                result[j] = tmp;
+            }
+        }
+        return result;
+    }
+}
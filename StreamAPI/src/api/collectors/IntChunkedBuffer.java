@@ -0,0 +1,80 @@
+package api.collectors;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * ChunkedBuffer for int values: a chain of int[] chunks, so adding never boxes or regrows and merge() is O(1).
+ *      int[] ages = people.parallelStream().collect(IntChunkedBuffer.collecting(Person::getAge));
+ *      Map<Boolean, int[]> agesByAdult = people.stream()
+ *              .collect(Collectors.groupingBy(Person::isAdult, IntChunkedBuffer.collecting(Person::getAge)));
+ *      ints.collect(IntChunkedBuffer::new, IntChunkedBuffer::add, IntChunkedBuffer::merge);
+ * The second form is the one mapToInt() cannot express: a primitive downstream collector. toArray() copies the
+ * values once into an int[] of exactly size() elements.
+ */
+public final class IntChunkedBuffer extends Chunks<int[]> {
+    public IntChunkedBuffer() {
+    }
+
+    /**
+     * Collector to an int[] of the mapped values, in encounter order.
+     */
+    public static <T> Collector<T, ?, int[]> collecting(ToIntFunction<? super T> mapper) {
+        return Collector.of(
+                IntChunkedBuffer::new,
+                (buffer, element) -> buffer.add(mapper.applyAsInt(element)),
+                IntChunkedBuffer::merge,
+                IntChunkedBuffer::toArray
+        );
+    }
+
+    @Override
+    int[] newArray(int length) {
+        return new int[length];
+    }
+
+    public void add(int value) {
+        int[] items = current;
+        if (used == items.length) {
+            items = grow();
+        }
+        items[used++] = value;
+    }
+
+    /**
+     * Appends the values of other after the values of this buffer, in O(1); other is left empty.
+     */
+    public IntChunkedBuffer merge(IntChunkedBuffer other) {
+        link(other);
+        return this;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (Chunk<int[]> chunk = first(); chunk != null; chunk = chunk.next) {
+            for (int i = 0; i < chunk.used; i++) {
+                action.accept(chunk.items[i]);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[arraySize()];
+        copyTo(result);
+        return result;
+    }
+
+    /**
+     * The values added so far, read straight from the chunks.
+     */
+    public IntStream stream() {
+        Stream.Builder<Chunk<int[]>> chunks = Stream.builder();
+        for (Chunk<int[]> chunk = first(); chunk != null; chunk = chunk.next) {
+            chunks.add(chunk);
+        }
+        return chunks.build().flatMapToInt(chunk -> Arrays.stream(chunk.items, 0, chunk.used));
+    }
+}
@@ -0,0 +1,80 @@
+package api.collectors;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * ChunkedBuffer for long values: a chain of long[] chunks, so adding never boxes or regrows and merge() is O(1).
+ *      long[] lengths = files.parallelStream().collect(LongChunkedBuffer.collecting(File::length));
+ *      Map<String, long[]> lengthsByFolder = files.stream()
+ *              .collect(Collectors.groupingBy(File::getParent, LongChunkedBuffer.collecting(File::length)));
+ *      longs.collect(LongChunkedBuffer::new, LongChunkedBuffer::add, LongChunkedBuffer::merge);
+ * The second form is the one mapToLong() cannot express: a primitive downstream collector. toArray() copies the
+ * values once into a long[] of exactly size() elements.
+ */
+public final class LongChunkedBuffer extends Chunks<long[]> {
+    public LongChunkedBuffer() {
+    }
+
+    /**
+     * Collector to a long[] of the mapped values, in encounter order.
+     */
+    public static <T> Collector<T, ?, long[]> collecting(ToLongFunction<? super T> mapper) {
+        return Collector.of(
+                LongChunkedBuffer::new,
+                (buffer, element) -> buffer.add(mapper.applyAsLong(element)),
+                LongChunkedBuffer::merge,
+                LongChunkedBuffer::toArray
+        );
+    }
+
+    @Override
+    long[] newArray(int length) {
+        return new long[length];
+    }
+
+    public void add(long value) {
+        long[] items = current;
+        if (used == items.length) {
+            items = grow();
+        }
+        items[used++] = value;
+    }
+
+    /**
+     * Appends the values of other after the values of this buffer, in O(1); other is left empty.
+     */
+    public LongChunkedBuffer merge(LongChunkedBuffer other) {
+        link(other);
+        return this;
+    }
+
+    public void forEach(LongConsumer action) {
+        for (Chunk<long[]> chunk = first(); chunk != null; chunk = chunk.next) {
+            for (int i = 0; i < chunk.used; i++) {
+                action.accept(chunk.items[i]);
+            }
+        }
+    }
+
+    public long[] toArray() {
+        long[] result = new long[arraySize()];
+        copyTo(result);
+        return result;
+    }
+
+    /**
+     * The values added so far, read straight from the chunks.
+     */
+    public LongStream stream() {
+        Stream.Builder<Chunk<long[]>> chunks = Stream.builder();
+        for (Chunk<long[]> chunk = first(); chunk != null; chunk = chunk.next) {
+            chunks.add(chunk);
+        }
+        return chunks.build().flatMapToLong(chunk -> Arrays.stream(chunk.items, 0, chunk.used));
+    }
+}
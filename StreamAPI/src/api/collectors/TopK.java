@@ -0,0 +1,132 @@
+package api.collectors;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * Collectors for the k smallest or k largest elements of a stream.
+ * min() and max() give a single extreme, and sorted().limit(k) sorts the whole stream to keep k elements.
+ * These collectors keep a bounded heap of k elements instead: O(n log k) time and O(k) memory, and under parallel()
+ * every worker keeps its own heap and the heaps are merged at the end. Results are sorted best first.
+ *      employees.stream().collect(TopK.smallest(100, Comparator.comparingDouble(Employee::getSalary)));
+ *      employees.stream().collect(TopK.smallestBy(100, Employee::getSalary));   // primitive key, no Comparator
+ *      dates.stream().collect(TopK.smallest(1000, Comparator.naturalOrder()));
+ * The *By variants extract a primitive double or int key once per element and compare keys directly.
+ * Ties at the cut-off: a new element replaces the worst kept one only when it is strictly better, so an element
+ * equal to the worst kept one is dropped. When a strictly better element arrives while several equal elements share
+ * the worst place, it evicts the one at the root of the heap, which is not necessarily the latest of them. The
+ * result is deterministic for a given encounter order (and, under parallel(), a given split), but which of the
+ * equal elements are kept is otherwise not specified, nor is their order within the result. When it matters, use
+ * largest()/smallest() with a tie-breaking comparator:
+ *      employees.stream().collect(TopK.largest(10,
+ *              Comparator.comparing(Employee::getSalary).thenComparing(Employee::getName)));
+ */
+public final class TopK {
+    private TopK() {
+    }
+
+    public static <T> Collector<T, ?, List<T>> largest(int k, Comparator<? super T> comparator) {
+        return bounded(k, comparator);
+    }
+
+    public static <T> Collector<T, ?, List<T>> smallest(int k, Comparator<? super T> comparator) {
+        return bounded(k, comparator.reversed());
+    }
+
+    public static <T> Collector<T, ?, List<T>> largestBy(int k, ToDoubleFunction<? super T> key) {
+        return keyed(k, true, key);
+    }
+
+    public static <T> Collector<T, ?, List<T>> smallestBy(int k, ToDoubleFunction<? super T> key) {
+        return keyed(k, false, key);
+    }
+
+    public static <T> Collector<T, ?, List<T>> largestByInt(int k, ToIntFunction<? super T> key) {
+        return keyed(k, true, element -> key.applyAsInt(element));
+    }
+
+    public static <T> Collector<T, ?, List<T>> smallestByInt(int k, ToIntFunction<? super T> key) {
+        return keyed(k, false, element -> key.applyAsInt(element));
+    }
+
+    public static double[] largest(DoubleStream values, int k) {
+        return select(values, k, true);
+    }
+
+    public static double[] smallest(DoubleStream values, int k) {
+        return select(values, k, false);
+    }
+
+    public static int[] largest(IntStream values, int k) {
+        return toInts(select(values.asDoubleStream(), k, true));
+    }
+
+    public static int[] smallest(IntStream values, int k) {
+        return toInts(select(values.asDoubleStream(), k, false));
+    }
+
+    private static double[] select(DoubleStream values, int k, boolean largest) {
+        return values.collect(
+                () -> new DoubleKeyedHeap<Void>(k, largest),
+                (heap, value) -> heap.offer(value, null),
+                DoubleKeyedHeap::merge
+        ).sortedKeys();
+    }
+
+    private static int[] toInts(double[] values) {
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (int) values[i];
+        }
+        return result;
+    }
+
+    private static <T> Collector<T, ?, List<T>> keyed(int k, boolean largest, ToDoubleFunction<? super T> key) {
+        return Collector.of(
+                () -> new DoubleKeyedHeap<T>(k, largest),
+                (heap, element) -> heap.offer(key.applyAsDouble(element), element),
+                DoubleKeyedHeap::merge,
+                DoubleKeyedHeap::sortedValues
+        );
+    }
+
+    /**
+     * Keeps the k greatest elements by comparator in a PriorityQueue whose head is the smallest one kept.
+     */
+    private static <T> Collector<T, ?, List<T>> bounded(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        class Bounded {
+            final PriorityQueue<T> heap = new PriorityQueue<>(Math.max(1, Math.min(k, 16)), comparator);
+
+            void offer(T element) {
+                if (heap.size() < k) {
+                    heap.add(element);
+                } else if (k > 0 && comparator.compare(element, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(element);
+                }
+            }
+
+            Bounded merge(Bounded other) {
+                other.heap.forEach(this::offer);
+                return this;
+            }
+
+            List<T> finish() {
+                List<T> result = new ArrayList<>(heap);
+                result.sort(comparator.reversed());
+                return result;
+            }
+        }
+        return Collector.of(Bounded::new, Bounded::offer, Bounded::merge, Bounded::finish);
+    }
+}
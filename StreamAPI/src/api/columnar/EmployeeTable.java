@@ -0,0 +1,296 @@
+package api.columnar;
+
+import api.methods.Employee;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.OptionalDouble;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Column-oriented (structure of arrays) storage for employees.
+ * A List&lt;Employee&gt; costs one Employee object plus one boxed Double per row, and every salary query has to
+ * follow two pointers and unbox. This table keeps the same data in two primitive columns instead:
+ * 1. names:    an int code per row pointing into a dictionary that holds every distinct name once.
+ * 2. salaries: a double[] with one salary per row.
+ * So a row costs 12 bytes no matter how many rows share the same name, and sum(), min(), max(), topN() and
+ * bottomN() are plain loops over a double[] that never allocate per row.
+ * Rows are addressed by their index (0..size()-1), the same way as List.get(int).
+ * The table is not thread-safe for writes; build it first and then query it from as many threads as needed.
+ */
+public class EmployeeTable {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final StringDictionary names = new StringDictionary();
+
+    private int[] nameCodes;
+    private double[] salaries;
+    private int size;
+
+    public EmployeeTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EmployeeTable(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + initialCapacity);
+        }
+        nameCodes = new int[initialCapacity];
+        salaries = new double[initialCapacity];
+    }
+
+    /**
+     * Copies a list of employees into columns. A null salary is stored as 0.
+     */
+    public static EmployeeTable from(Collection<Employee> employees) {
+        EmployeeTable table = new EmployeeTable(employees.size());
+        for (Employee employee : employees) {
+            Double salary = employee.getSalary();
+            table.add(employee.getName(), salary == null ? 0D : salary);
+        }
+        return table;
+    }
+
+    /**
+     * Appends a row and returns its index.
+     */
+    public int add(String name, double salary) {
+        if (size == salaries.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, size + (size >> 1));
+            nameCodes = Arrays.copyOf(nameCodes, capacity);
+            salaries = Arrays.copyOf(salaries, capacity);
+        }
+        nameCodes[size] = names.encode(name);
+        salaries[size] = salary;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String getName(int row) {
+        return names.decode(nameCodes[checkRow(row)]);
+    }
+
+    public double getSalary(int row) {
+        return salaries[checkRow(row)];
+    }
+
+    public void setSalary(int row, double salary) {
+        salaries[checkRow(row)] = salary;
+    }
+
+    /**
+     * The dictionary code of the row's name, stable for the lifetime of the table.
+     */
+    public int getNameCode(int row) {
+        return nameCodes[checkRow(row)];
+    }
+
+    /**
+     * The name for a dictionary code returned by getNameCode() or nameCodes().
+     */
+    public String nameOf(int code) {
+        return names.decode(code);
+    }
+
+    /**
+     * Number of distinct names in the dictionary.
+     */
+    public int distinctNames() {
+        return names.size();
+    }
+
+    /**
+     * Materialises a row as an Employee, for callers that still need the object form.
+     */
+    public Employee get(int row) {
+        return new Employee(getName(row), getSalary(row));
+    }
+
+    public Stream<Employee> stream() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+
+    /**
+     * Salary column as a primitive stream; no boxing, and it splits evenly for parallel().
+     */
+    public DoubleStream salaries() {
+        return Arrays.stream(salaries, 0, size);
+    }
+
+    /**
+     * Name code column as a primitive stream; use nameOf() to turn a code back into a name.
+     */
+    public IntStream nameCodes() {
+        return Arrays.stream(nameCodes, 0, size);
+    }
+
+    /**
+     * Row indices, for pipelines that need more than one column, e.g. rows().filter(r -> getSalary(r) > 5000).
+     */
+    public IntStream rows() {
+        return IntStream.range(0, size);
+    }
+
+    /**
+     * Plain left-to-right sum. Unlike DoubleStream.sum() it does no compensated (Kahan) summation, so it matches
+     * a hand-written loop bit for bit and keeps the loop body to a single add.
+     */
+    public double sum() {
+        double[] values = salaries;
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    public OptionalDouble average() {
+        return size == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum() / size);
+    }
+
+    public OptionalDouble min() {
+        int row = minRow();
+        return row < 0 ? OptionalDouble.empty() : OptionalDouble.of(salaries[row]);
+    }
+
+    public OptionalDouble max() {
+        int row = maxRow();
+        return row < 0 ? OptionalDouble.empty() : OptionalDouble.of(salaries[row]);
+    }
+
+    /**
+     * Index of the lowest-paid row (the first one on ties), or -1 when the table is empty.
+     * This is the columnar form of employees.stream().min(Comparator.comparingDouble(Employee::getSalary)).
+     */
+    public int minRow() {
+        double[] values = salaries;
+        int best = -1;
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            if (values[i] < min || best < 0) {
+                min = values[i];
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Index of the highest-paid row (the first one on ties), or -1 when the table is empty.
+     */
+    public int maxRow() {
+        double[] values = salaries;
+        int best = -1;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            if (values[i] > max || best < 0) {
+                max = values[i];
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Rows of the n highest salaries, highest first.
+     * Uses a bounded min-heap of row indices: O(size * log n) time and one int[n] as the only allocation.
+     */
+    public int[] topN(int n) {
+        return selectRows(n, true);
+    }
+
+    /**
+     * Rows of the n lowest salaries, lowest first.
+     */
+    public int[] bottomN(int n) {
+        return selectRows(n, false);
+    }
+
+    private int[] selectRows(int n, boolean highest) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative: " + n);
+        }
+        int k = Math.min(n, size);
+        int[] heap = new int[k];
+        if (k == 0) {
+            return heap;
+        }
+        // The heap root is the "worst" kept row: the lowest salary for topN, the highest for bottomN.
+        for (int row = 0; row < size; row++) {
+            if (row < k) {
+                heap[row] = row;
+                siftUp(heap, row, highest);
+            } else if (worse(heap[0], row, highest)) {
+                heap[0] = row;
+                siftDown(heap, 0, k, highest);
+            }
+        }
+        // Heap sort in place: repeatedly move the worst kept row to the end, which leaves the best one first.
+        for (int end = k - 1; end > 0; end--) {
+            int root = heap[0];
+            heap[0] = heap[end];
+            heap[end] = root;
+            siftDown(heap, 0, end, highest);
+        }
+        return heap;
+    }
+
+    /**
+     * True when row a ranks below row b, i.e. a should leave the heap before b.
+     */
+    private boolean worse(int a, int b, boolean highest) {
+        int cmp = Double.compare(salaries[a], salaries[b]);
+        if (cmp == 0) {
+            // On equal salaries keep the earlier row, like a stable sort would.
+            return a > b;
+        }
+        return highest ? cmp < 0 : cmp > 0;
+    }
+
+    private void siftUp(int[] heap, int index, boolean highest) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!worse(row, heap[parent], highest)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private void siftDown(int[] heap, int index, int length, boolean highest) {
+        int row = heap[index];
+        int half = length >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < length && worse(heap[right], heap[child], highest)) {
+                child = right;
+            }
+            if (!worse(heap[child], row, highest)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return row;
+    }
+}
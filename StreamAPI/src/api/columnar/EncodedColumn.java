@@ -0,0 +1,137 @@
+package api.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A dictionary-encoded String column: an int code per row plus a StringDictionary, and the number of rows per
+ * code, kept up to date on add() and set(). With those counts, counting by value and distinct values cost one
+ * step per distinct value rather than per row, and an equality filter is a loop comparing ints.
+ */
+final class EncodedColumn {
+    private final StringDictionary dictionary = new StringDictionary();
+    private int[] codes;
+    private int[] rowsPerCode = new int[16];
+    private int size;
+
+    EncodedColumn(int initialCapacity) {
+        codes = new int[initialCapacity];
+    }
+
+    void add(String value) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(16, size + (size >> 1)));
+        }
+        int code = encode(value);
+        codes[size++] = code;
+        rowsPerCode[code]++;
+    }
+
+    void set(int row, String value) {
+        rowsPerCode[codes[row]]--;
+        int code = encode(value);
+        codes[row] = code;
+        rowsPerCode[code]++;
+    }
+
+    private int encode(String value) {
+        int code = dictionary.encode(value);
+        if (code == rowsPerCode.length) {
+            rowsPerCode = Arrays.copyOf(rowsPerCode, code * 2);
+        }
+        return code;
+    }
+
+    int code(int row) {
+        return codes[row];
+    }
+
+    String value(int row) {
+        return dictionary.decode(codes[row]);
+    }
+
+    /**
+     * The code of value, or -1 if no row ever had it.
+     */
+    int codeOf(String value) {
+        return dictionary.code(value);
+    }
+
+    String decode(int code) {
+        return dictionary.decode(code);
+    }
+
+    IntStream codes() {
+        return Arrays.stream(codes, 0, size);
+    }
+
+    long count(String value) {
+        int code = dictionary.code(value);
+        return code < 0 ? 0 : rowsPerCode[code];
+    }
+
+    /**
+     * Rows per value, in order of first appearance; values no row has any more are left out.
+     */
+    Map<String, Long> countByValue() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int code = 0; code < dictionary.size(); code++) {
+            if (rowsPerCode[code] > 0) {
+                result.put(dictionary.decode(code), (long) rowsPerCode[code]);
+            }
+        }
+        return result;
+    }
+
+    List<String> distinct() {
+        List<String> result = new ArrayList<>(dictionary.size());
+        for (int code = 0; code < dictionary.size(); code++) {
+            if (rowsPerCode[code] > 0) {
+                result.add(dictionary.decode(code));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The rows whose value equals value, ascending: the string is looked up once, then only ints are compared.
+     */
+    int[] rowsWith(String value) {
+        int code = dictionary.code(value);
+        if (code < 0) {
+            return new int[0];
+        }
+        int[] rows = new int[rowsPerCode[code]];
+        int[] column = codes;
+        int found = 0;
+        for (int row = 0; found < rows.length; row++) {
+            if (column[row] == code) {
+                rows[found++] = row;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The rows of every code, ascending within a code: a counting sort of the row numbers by code, sized
+     * exactly from rowsPerCode, so grouping never hashes a string or grows a list.
+     */
+    int[][] rowsByCode() {
+        int distinct = dictionary.size();
+        int[][] rows = new int[distinct][];
+        for (int code = 0; code < distinct; code++) {
+            rows[code] = new int[rowsPerCode[code]];
+        }
+        int[] filled = new int[distinct];
+        int[] column = codes;
+        for (int row = 0; row < size; row++) {
+            int code = column[row];
+            rows[code][filled[code]++] = row;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,177 @@
+package api.columnar;
+
+import api.methods.Person;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Column-oriented storage for people with a dictionary-encoded name.
+ * First names repeat a lot (a million people share a few thousand of them), so this table keeps:
+ * 1. names: an int code per row into a StringDictionary that holds every distinct name once, plus the number
+ *           of rows per code.
+ * 2. ages:  an int[] with one age per row.
+ * A row costs 8 bytes instead of a Person object, and the name queries work on the codes:
+ *      countByName()         // groupingBy(getName, counting()): one step per distinct name, no row scan
+ *      distinctNames()       // map(getName).distinct(): one step per distinct name
+ *      rowsNamed("Anna")     // filter(p -> p.getName().equals("Anna")): an int compare per row
+ *      groupByName()         // groupingBy(getName): a counting sort of row numbers by code
+ * Rows are addressed by their index (0..size()-1). Rows are copies: changing a Person returned by get() does
+ * not change the table. Not thread-safe for writes; build it, then query it from as many threads as needed.
+ */
+public class PersonTable {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final EncodedColumn names;
+    private int[] ages;
+    private int size;
+
+    public PersonTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PersonTable(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + initialCapacity);
+        }
+        ages = new int[initialCapacity];
+        names = new EncodedColumn(initialCapacity);
+    }
+
+    public static PersonTable from(Collection<Person> people) {
+        PersonTable table = new PersonTable(people.size());
+        for (Person person : people) {
+            table.add(person.getName(), person.getAge());
+        }
+        return table;
+    }
+
+    /**
+     * Appends a row and returns its index.
+     */
+    public int add(String name, int age) {
+        if (size == ages.length) {
+            ages = Arrays.copyOf(ages, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+        ages[size] = age;
+        names.add(name);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String getName(int row) {
+        return names.value(checkRow(row));
+    }
+
+    public void setName(int row, String name) {
+        names.set(checkRow(row), name);
+    }
+
+    public int getAge(int row) {
+        return ages[checkRow(row)];
+    }
+
+    public void setAge(int row, int age) {
+        ages[checkRow(row)] = age;
+    }
+
+    /**
+     * The dictionary code of the row's name, stable for the lifetime of the table.
+     */
+    public int getNameCode(int row) {
+        return names.code(checkRow(row));
+    }
+
+    /**
+     * The code of name, or -1 when no person ever had it.
+     */
+    public int nameCode(String name) {
+        return names.codeOf(name);
+    }
+
+    public String nameOf(int code) {
+        return names.decode(code);
+    }
+
+    public Person get(int row) {
+        return new Person(getName(row), getAge(row));
+    }
+
+    public Stream<Person> stream() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+
+    public IntStream ages() {
+        return Arrays.stream(ages, 0, size);
+    }
+
+    /**
+     * Name code column as a primitive stream; use nameOf() to turn a code back into a name.
+     */
+    public IntStream nameCodes() {
+        return names.codes();
+    }
+
+    /**
+     * People per name, in order of first appearance.
+     */
+    public Map<String, Long> countByName() {
+        return names.countByValue();
+    }
+
+    public List<String> distinctNames() {
+        return names.distinct();
+    }
+
+    public long countNamed(String name) {
+        return names.count(name);
+    }
+
+    /**
+     * Indices of the rows with this name, ascending.
+     */
+    public int[] rowsNamed(String name) {
+        return names.rowsWith(name);
+    }
+
+    public Stream<Person> named(String name) {
+        return Arrays.stream(rowsNamed(name)).mapToObj(this::get);
+    }
+
+    /**
+     * The people with every name, in order of first appearance; within a name in row order.
+     */
+    public Map<String, List<Person>> groupByName() {
+        int[][] rows = names.rowsByCode();
+        Map<String, List<Person>> result = new LinkedHashMap<>();
+        for (int code = 0; code < rows.length; code++) {
+            if (rows[code].length > 0) {
+                Person[] people = new Person[rows[code].length];
+                for (int i = 0; i < people.length; i++) {
+                    people[i] = get(rows[code][i]);
+                }
+                result.put(nameOf(code), Arrays.asList(people));
+            }
+        }
+        return result;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return row;
+    }
+}
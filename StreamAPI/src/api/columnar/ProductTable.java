@@ -0,0 +1,173 @@
+package api.columnar;
+
+import api.methods.Product;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Column-oriented storage for products with a dictionary-encoded category.
+ * A catalog has millions of products but a few dozen categories, and groupingBy(Product::getCategory) hashes
+ * and compares the full category string of every product. This table keeps:
+ * 1. names:      a String[] with one name per row (names are mostly unique, so encoding them would not help).
+ * 2. categories: an int code per row into a StringDictionary that holds every distinct category once, plus
+ *                the number of rows per code.
+ * So every category string exists once however it was read (e.g. one String per CSV line), and:
+ *      countByCategory()            // groupingBy(getCategory, counting()): one step per category, no row scan
+ *      distinctCategories()         // map(getCategory).distinct(): one step per category
+ *      rowsWithCategory("Books")    // filter(p -> p.getCategory().equals("Books")): an int compare per row
+ *      groupByCategory()            // groupingBy(getCategory): a counting sort of row numbers by code
+ * Rows are addressed by their index (0..size()-1). Not thread-safe for writes; build it, then query it from
+ * as many threads as needed.
+ */
+public class ProductTable {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final EncodedColumn categories;
+    private String[] names;
+    private int size;
+
+    public ProductTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ProductTable(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + initialCapacity);
+        }
+        names = new String[initialCapacity];
+        categories = new EncodedColumn(initialCapacity);
+    }
+
+    public static ProductTable from(Collection<Product> products) {
+        ProductTable table = new ProductTable(products.size());
+        for (Product product : products) {
+            table.add(product.getName(), product.getCategory());
+        }
+        return table;
+    }
+
+    /**
+     * Appends a row and returns its index.
+     */
+    public int add(String name, String category) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+        names[size] = name;
+        categories.add(category);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String getName(int row) {
+        return names[checkRow(row)];
+    }
+
+    public String getCategory(int row) {
+        return categories.value(checkRow(row));
+    }
+
+    public void setCategory(int row, String category) {
+        categories.set(checkRow(row), category);
+    }
+
+    /**
+     * The dictionary code of the row's category, stable for the lifetime of the table.
+     */
+    public int getCategoryCode(int row) {
+        return categories.code(checkRow(row));
+    }
+
+    /**
+     * The code of category, or -1 when no product ever had it.
+     */
+    public int categoryCode(String category) {
+        return categories.codeOf(category);
+    }
+
+    public String categoryOf(int code) {
+        return categories.decode(code);
+    }
+
+    /**
+     * Materialises a row as a Product; equal categories share one String instance.
+     */
+    public Product get(int row) {
+        return new Product(getName(row), getCategory(row));
+    }
+
+    public Stream<Product> stream() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+
+    /**
+     * Category code column as a primitive stream; use categoryOf() to turn a code back into a category.
+     */
+    public IntStream categoryCodes() {
+        return categories.codes();
+    }
+
+    /**
+     * Products per category, in order of first appearance.
+     */
+    public Map<String, Long> countByCategory() {
+        return categories.countByValue();
+    }
+
+    public List<String> distinctCategories() {
+        return categories.distinct();
+    }
+
+    public long countWithCategory(String category) {
+        return categories.count(category);
+    }
+
+    /**
+     * Indices of the rows in category, ascending.
+     */
+    public int[] rowsWithCategory(String category) {
+        return categories.rowsWith(category);
+    }
+
+    public Stream<Product> withCategory(String category) {
+        return Arrays.stream(rowsWithCategory(category)).mapToObj(this::get);
+    }
+
+    /**
+     * The products of every category, in order of first appearance; within a category in row order.
+     */
+    public Map<String, List<Product>> groupByCategory() {
+        int[][] rows = categories.rowsByCode();
+        Map<String, List<Product>> result = new LinkedHashMap<>();
+        for (int code = 0; code < rows.length; code++) {
+            if (rows[code].length > 0) {
+                Product[] products = new Product[rows[code].length];
+                for (int i = 0; i < products.length; i++) {
+                    products[i] = get(rows[code][i]);
+                }
+                result.put(categoryOf(code), Arrays.asList(products));
+            }
+        }
+        return result;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,72 @@
+package api.columnar;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds every distinct string once and numbers them 0, 1, 2... in order of first appearance.
+ * A column then stores an int code per row instead of a String reference, and equality, grouping and distinct
+ * on that column become int comparisons and array indexing:
+ *      StringDictionary categories = new StringDictionary();
+ *      int code = categories.encode("Electronics");   // 0 the first time, the same code ever after
+ *      categories.decode(code);                       // "Electronics", always the same String instance
+ *      categories.code("Toys");                       // -1: never encoded, so no row can have it
+ * Codes are dense, so a per-code result (a count, a sum, a list of rows) fits in an array of size() slots.
+ * null is a value like any other and gets its own code.
+ * Not thread-safe for encode(); after the last encode() any number of threads may read.
+ */
+public class StringDictionary {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[DEFAULT_CAPACITY];
+    private int size;
+
+    /**
+     * The code of value, adding it to the dictionary if it is new.
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        codes.put(value, size);
+        return size++;
+    }
+
+    /**
+     * The code of value, or -1 if it was never encoded. Never adds.
+     */
+    public int code(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    public String decode(int code) {
+        if (code < 0 || code >= size) {
+            throw new IndexOutOfBoundsException("Unknown code: " + code);
+        }
+        return values[code];
+    }
+
+    /**
+     * Number of distinct values; codes run from 0 to size() - 1.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The distinct values by code, i.e. in order of first appearance, as an unmodifiable view.
+     */
+    public List<String> values() {
+        return Collections.unmodifiableList(Arrays.asList(values).subList(0, size));
+    }
+}
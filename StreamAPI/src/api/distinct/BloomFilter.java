@@ -0,0 +1,76 @@
+package api.distinct;
+
+/**
+ * An approximate fingerprint set with a fixed size chosen up front from the expected number of values and the
+ * acceptable false-positive rate: about 9.6 bits per value for 1%, 14.4 bits for 0.1%.
+ * add() never misses a duplicate, but may report a new value as already seen (a false positive), in which case a
+ * distinct stage built on it drops that value. It is meant for dedup jobs where losing a tiny fraction of unique
+ * values is acceptable in exchange for memory that does not grow with the input.
+ * The k bit positions are derived from the 64-bit fingerprint and its rotation (Kirsch-Mitzenmacher double hashing),
+ * so no extra hashing is done per probe. Not thread-safe.
+ */
+public class BloomFilter implements FingerprintSet {
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    private long size;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (Math.max(64, optimalBits) + 63) >>> 6);
+        this.bits = new long[words];
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    @Override
+    public boolean add(long fingerprint) {
+        long h1 = fingerprint;
+        long h2 = Long.rotateLeft(fingerprint, 32) | 1;
+        boolean added = false;
+        for (int i = 1; i <= hashCount; i++) {
+            long index = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                added = true;
+            }
+        }
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    public boolean mightContain(long fingerprint) {
+        long h1 = fingerprint;
+        long h2 = Long.rotateLeft(fingerprint, 32) | 1;
+        for (int i = 1; i <= hashCount; i++) {
+            long index = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+}
@@ -0,0 +1,119 @@
+package api.distinct;
+
+import java.nio.file.Path;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A memory-bounded replacement for Stream.distinct(), used as a filter:
+ *      try (DistinctFilter<Product> firstSeen = DistinctFilter.exact(Fingerprints.by(Product::getName))) {
+ *          List<Product> unique = products.stream().filter(firstSeen).toList();
+ *      }
+ * Stream.distinct() keeps every distinct element in a HashSet and calls hashCode()/equals() on the elements.
+ * This filter keeps only a 64-bit fingerprint per distinct value, in one of three modes:
+ * 1. exact():       an in-memory LongHashSet, about 16 bytes per distinct value.
+ * 2. spilling():    same, but past a memory budget the fingerprints go to memory-mapped run files on disk.
+ * 3. approximate(): a fixed-size BloomFilter; may drop a small, configurable fraction of unique values.
+ * The first occurrence of each value passes and later ones are dropped. "Exact" means exact up to a 64-bit
+ * fingerprint collision (see Fingerprints).
+ * One filter can be shared by a parallel() stream. The factories split the set into stripes (4 per processor,
+ * chosen by fingerprint) with a lock each, so threads only wait for each other when their values land in the
+ * same stripe, instead of all of them queueing on one lock. A filter built with the constructor has a single
+ * stripe, so its test() calls are serialized. Under parallel(), which of several duplicates survives is not
+ * defined, the same as for an unordered distinct().
+ * close() releases the memory and deletes any spill files; a filter is meant for a single pipeline run.
+ */
+public class DistinctFilter<T> implements Predicate<T>, AutoCloseable {
+    private static final int STRIPES = Integer.highestOneBit(4 * Runtime.getRuntime().availableProcessors() - 1) << 1;
+    private static final long STRIPE_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final ToLongFunction<? super T> fingerprint;
+    private final FingerprintSet[] stripes;
+
+    /**
+     * A filter over a single set; its test() calls are serialized on that set.
+     */
+    public DistinctFilter(ToLongFunction<? super T> fingerprint, FingerprintSet seen) {
+        this(fingerprint, new FingerprintSet[]{seen});
+    }
+
+    private DistinctFilter(ToLongFunction<? super T> fingerprint, FingerprintSet[] stripes) {
+        this.fingerprint = fingerprint;
+        this.stripes = stripes;
+    }
+
+    public static <T> DistinctFilter<T> exact(ToLongFunction<? super T> fingerprint) {
+        return striped(fingerprint, STRIPES, stripe -> new LongHashSet());
+    }
+
+    /**
+     * @param memoryBudgetBytes shared by the stripes, each of which keeps at least 1 KB (so a small budget means
+     *                          fewer stripes)
+     */
+    public static <T> DistinctFilter<T> spilling(ToLongFunction<? super T> fingerprint, long memoryBudgetBytes,
+                                                 Path spillDirectory) {
+        int stripes = (int) Math.max(1, Math.min(STRIPES, Long.highestOneBit(memoryBudgetBytes / 1024)));
+        return striped(fingerprint, stripes,
+                stripe -> new SpillingFingerprintSet(memoryBudgetBytes / stripes, spillDirectory));
+    }
+
+    /**
+     * Every stripe is a BloomFilter sized for its share of expectedDistinct, so the false-positive rate holds
+     * for the filter as a whole.
+     */
+    public static <T> DistinctFilter<T> approximate(ToLongFunction<? super T> fingerprint, long expectedDistinct,
+                                                    double falsePositiveRate) {
+        int stripes = (int) Math.max(1, Math.min(STRIPES, Long.highestOneBit(expectedDistinct / 1024)));
+        return striped(fingerprint, stripes,
+                stripe -> new BloomFilter((expectedDistinct + stripes - 1) / stripes, falsePositiveRate));
+    }
+
+    private static <T> DistinctFilter<T> striped(ToLongFunction<? super T> fingerprint, int count,
+                                                 IntFunction<FingerprintSet> stripe) {
+        FingerprintSet[] stripes = new FingerprintSet[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = stripe.apply(i);
+        }
+        return new DistinctFilter<>(fingerprint, stripes);
+    }
+
+    @Override
+    public boolean test(T element) {
+        long value = fingerprint.applyAsLong(element);
+        FingerprintSet seen = stripes[stripe(value)];
+        synchronized (seen) {
+            return seen.add(value);
+        }
+    }
+
+    /**
+     * The stripe of a fingerprint: the same value always goes to the same stripe, so every stripe decides alone.
+     * Multiplying first makes the chosen bits depend on the whole fingerprint, not on bits the sets index by.
+     */
+    private int stripe(long value) {
+        return (int) ((value * STRIPE_MULTIPLIER) >>> 40) & (stripes.length - 1);
+    }
+
+    /**
+     * Number of distinct values that passed the filter so far.
+     */
+    public long distinctCount() {
+        long count = 0;
+        for (FingerprintSet seen : stripes) {
+            synchronized (seen) {
+                count += seen.size();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        for (FingerprintSet seen : stripes) {
+            synchronized (seen) {
+                seen.close();
+            }
+        }
+    }
+}
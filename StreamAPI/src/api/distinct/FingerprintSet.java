@@ -0,0 +1,25 @@
+package api.distinct;
+
+/**
+ * A set of 64-bit fingerprints that only answers "seen before?".
+ * Implementations differ in how much memory they use and whether they can be wrong:
+ * LongHashSet (in memory), SpillingFingerprintSet (memory budget, overflow on disk) and BloomFilter (approximate).
+ */
+public interface FingerprintSet extends AutoCloseable {
+    /**
+     * Records the fingerprint and returns true if it was not in the set yet.
+     */
+    boolean add(long fingerprint);
+
+    /**
+     * Number of fingerprints added so far (for BloomFilter: number of add() calls that returned true).
+     */
+    long size();
+
+    /**
+     * Releases memory or disk space held by the set. The default does nothing.
+     */
+    @Override
+    default void close() {
+    }
+}
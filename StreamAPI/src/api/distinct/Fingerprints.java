@@ -0,0 +1,63 @@
+package api.distinct;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 64-bit fingerprints for strings and for objects identified by a string key.
+ * A distinct stage that stores fingerprints instead of elements needs 8 bytes per distinct value no matter how big
+ * the element is, and never calls the element's hashCode() (Product.hashCode() used to allocate a varargs array
+ * through Objects.hash()). Two different values get the same fingerprint with a probability of about n^2 / 2^65,
+ * i.e. around one in ten thousand runs for 50 million distinct values; use Stream.distinct() where that is too much.
+ */
+public final class Fingerprints {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /**
+     * The fingerprint of null, so that null keys are deduplicated like Stream.distinct() does with null elements.
+     */
+    static final long NULL = mix(0x9E3779B97F4A7C15L);
+
+    private Fingerprints() {
+    }
+
+    /**
+     * FNV-1a over the chars, followed by the MurmurHash3 finalizer so that every input bit affects every output bit.
+     * null has a fixed fingerprint of its own.
+     */
+    public static long of(CharSequence value) {
+        if (value == null) {
+            return NULL;
+        }
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash ^ value.length());
+    }
+
+    public static long of(long value) {
+        return mix(value);
+    }
+
+    /**
+     * Fingerprint of an element through the string key that defines its equality,
+     * e.g. Fingerprints.by(Product::getName), matching Product.equals().
+     */
+    public static <T> ToLongFunction<T> by(Function<? super T, ? extends CharSequence> key) {
+        return element -> of(key.apply(element));
+    }
+
+    public static ToLongFunction<String> forStrings() {
+        return Fingerprints::of;
+    }
+
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,131 @@
+package api.distinct;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash set of longs: 8 bytes per slot, no Long or HashMap.Node objects.
+ * A HashSet&lt;Product&gt; costs a node (32 bytes), the element and its key per entry; this set holds only the
+ * fingerprint, at a load factor of at most 0.5, so about 16 bytes per distinct value.
+ * Slot value 0 marks an empty slot; the fingerprint 0 itself is tracked with a separate flag.
+ * Not thread-safe.
+ */
+public class LongHashSet implements FingerprintSet {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] table;
+    private boolean containsZero;
+    private int size;
+    private int resizeAt;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        allocate(Math.max(DEFAULT_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        resizeAt = capacity >>> 1;
+    }
+
+    private static int slot(long value, int mask) {
+        // Fingerprints are already mixed, but the set also accepts arbitrary longs, so mix once more.
+        return (int) Fingerprints.mix(value) & mask;
+    }
+
+    @Override
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int index = slot(value, mask);
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        if (++size > resizeAt) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int mask = table.length - 1;
+        int index = slot(value, mask);
+        while (table[index] != 0) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (long value : old) {
+            if (value != 0) {
+                int index = slot(value, mask);
+                while (table[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Bytes held by the slot table; what a memory budget has to account for.
+     */
+    public long memoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    /**
+     * All values in ascending (signed) order.
+     */
+    public long[] toSortedArray() {
+        long[] values = new long[size];
+        int n = 0;
+        if (containsZero) {
+            values[n++] = 0;
+        }
+        for (long value : table) {
+            if (value != 0) {
+                values[n++] = value;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        containsZero = false;
+        size = 0;
+    }
+}
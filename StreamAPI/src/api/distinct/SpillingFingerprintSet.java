@@ -0,0 +1,254 @@
+package api.distinct;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An exact fingerprint set that keeps at most memoryBudgetBytes on the heap and spills the rest to disk.
+ * New fingerprints go into an in-memory LongHashSet. When that set reaches the budget it is sorted and written
+ * to a temp file as a "run" of ascending longs, and the in-memory set starts over. Each run is memory-mapped, so
+ * a membership check is a hash lookup plus one binary search per run, served from the OS page cache rather than
+ * the Java heap. Runs are merged by size, as in a size-tiered LSM tree: a spilled run is on level 0, and whenever
+ * MERGE_FACTOR runs share a level they are merged into one run on the next level with a streaming k-way merge.
+ * Every fingerprint is therefore rewritten once per level, O(log n) times in all, rather than on every spill, and
+ * there are at most MERGE_FACTOR - 1 runs (binary searches per element) per level.
+ * The element order of the stream is kept: every element is decided the moment it arrives.
+ * Call close() to delete the temp files.
+ */
+public class SpillingFingerprintSet implements FingerprintSet {
+    static final int MERGE_FACTOR = 4;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final int maxInMemory;
+    private final LongHashSet memory = new LongHashSet();
+    private final List<SortedRun> runs = new ArrayList<>();
+    private long size;
+
+    /**
+     * @param memoryBudgetBytes heap bytes the in-memory part may use before spilling (at least 1 KB)
+     * @param directory         where run files are created, e.g. Path.of(System.getProperty("java.io.tmpdir"))
+     */
+    public SpillingFingerprintSet(long memoryBudgetBytes, Path directory) {
+        if (memoryBudgetBytes < 1024) {
+            throw new IllegalArgumentException("Memory budget must be at least 1024 bytes: " + memoryBudgetBytes);
+        }
+        this.directory = directory;
+        // LongHashSet keeps its table at most half full, so a table of budget / 8 slots holds budget / 16 values.
+        long slots = Long.highestOneBit(Math.min(memoryBudgetBytes / Long.BYTES, 1L << 30));
+        this.maxInMemory = (int) (slots >>> 1);
+    }
+
+    @Override
+    public boolean add(long fingerprint) {
+        if (memory.contains(fingerprint)) {
+            return false;
+        }
+        for (SortedRun run : runs) {
+            if (run.contains(fingerprint)) {
+                return false;
+            }
+        }
+        memory.add(fingerprint);
+        size++;
+        if (memory.size() >= maxInMemory) {
+            spill();
+        }
+        return true;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Number of run files currently on disk.
+     */
+    public int spilledRuns() {
+        return runs.size();
+    }
+
+    private void spill() {
+        try {
+            runs.add(SortedRun.write(directory, memory.toSortedArray()));
+            memory.clear();
+            for (int level = 0; ; level++) {
+                List<SortedRun> tier = new ArrayList<>(MERGE_FACTOR);
+                for (SortedRun run : runs) {
+                    if (run.level == level) {
+                        tier.add(run);
+                    }
+                }
+                if (tier.size() < MERGE_FACTOR) {
+                    break;
+                }
+                SortedRun merged = SortedRun.merge(directory, tier);
+                merged.level = level + 1;
+                for (SortedRun run : tier) {
+                    run.delete();
+                }
+                runs.removeAll(tier);
+                runs.add(merged);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill fingerprints to " + directory, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        memory.clear();
+        for (SortedRun run : runs) {
+            run.delete();
+        }
+        runs.clear();
+    }
+
+    /**
+     * A file of ascending longs, mapped in segments because a single MappedByteBuffer is limited to 2 GB.
+     */
+    static final class SortedRun {
+        private static final int SEGMENT_SHIFT = 27;
+        private static final long SEGMENT_LONGS = 1L << SEGMENT_SHIFT;
+
+        private final Path file;
+        private final long length;
+        private final LongBuffer[] segments;
+        /**
+         * Number of merges behind this run: 0 for a spilled run, level + 1 for a merge of runs of one level.
+         */
+        int level;
+
+        private SortedRun(Path file, long length) throws IOException {
+            this.file = file;
+            this.length = length;
+            this.segments = new LongBuffer[(int) ((length + SEGMENT_LONGS - 1) >>> SEGMENT_SHIFT)];
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                for (int i = 0; i < segments.length; i++) {
+                    long first = (long) i << SEGMENT_SHIFT;
+                    long count = Math.min(SEGMENT_LONGS, length - first);
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * Long.BYTES, count * Long.BYTES)
+                            .order(ByteOrder.nativeOrder())
+                            .asLongBuffer();
+                }
+            }
+        }
+
+        static SortedRun write(Path directory, long[] sorted) throws IOException {
+            Path file = Files.createTempFile(directory, "distinct-", ".run");
+            try (RunWriter writer = new RunWriter(file)) {
+                for (long value : sorted) {
+                    writer.write(value);
+                }
+            }
+            return new SortedRun(file, sorted.length);
+        }
+
+        /**
+         * k-way merge of runs whose values are disjoint (a value is only spilled if no run contains it yet).
+         */
+        static SortedRun merge(Path directory, List<SortedRun> runs) throws IOException {
+            Path file = Files.createTempFile(directory, "distinct-", ".run");
+            long[] positions = new long[runs.size()];
+            long total = 0;
+            try (RunWriter writer = new RunWriter(file)) {
+                while (true) {
+                    int smallest = -1;
+                    long value = 0;
+                    for (int i = 0; i < positions.length; i++) {
+                        SortedRun run = runs.get(i);
+                        if (positions[i] < run.length) {
+                            long candidate = run.get(positions[i]);
+                            if (smallest < 0 || candidate < value) {
+                                smallest = i;
+                                value = candidate;
+                            }
+                        }
+                    }
+                    if (smallest < 0) {
+                        break;
+                    }
+                    writer.write(value);
+                    positions[smallest]++;
+                    total++;
+                }
+            }
+            return new SortedRun(file, total);
+        }
+
+        long get(long index) {
+            return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & (SEGMENT_LONGS - 1)));
+        }
+
+        boolean contains(long value) {
+            long low = 0;
+            long high = length - 1;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                long current = get(middle);
+                if (current < value) {
+                    low = middle + 1;
+                } else if (current > value) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Buffered writer of native-order longs through a FileChannel.
+     */
+    private static final class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.nativeOrder());
+
+        RunWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(long value) throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
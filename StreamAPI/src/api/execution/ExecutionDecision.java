@@ -0,0 +1,54 @@
+package api.execution;
+
+/**
+ * The mode an ExecutionPolicy chose for one pipeline, and why. Log it, or assert on it in a test.
+ */
+public final class ExecutionDecision {
+    private final ExecutionMode mode;
+    private final long size;
+    private final long estimatedNanos;
+    private final int parallelism;
+    private final String reason;
+
+    ExecutionDecision(ExecutionMode mode, long size, long estimatedNanos, int parallelism, String reason) {
+        this.mode = mode;
+        this.size = size;
+        this.estimatedNanos = estimatedNanos;
+        this.parallelism = parallelism;
+        this.reason = reason;
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Number of elements in the source: its Collection.size(), which is always known when the decision is made.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * size * cost per element: the estimated sequential time of the whole pipeline.
+     */
+    public long getEstimatedNanos() {
+        return estimatedNanos;
+    }
+
+    /**
+     * Workers used: 1 for SEQUENTIAL, the pool size for PARALLEL, the concurrency limit for VIRTUAL_THREADS.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return mode + " x" + parallelism + " (" + size + " elements, ~" + estimatedNanos / 1000 + "us): " + reason;
+    }
+}
@@ -0,0 +1,19 @@
+package api.execution;
+
+/**
+ * How an ExecutionPolicy runs a pipeline.
+ */
+public enum ExecutionMode {
+    /**
+     * stream() on the calling thread.
+     */
+    SEQUENTIAL,
+    /**
+     * parallelStream() on the policy's own bounded ForkJoinPool, never the common pool.
+     */
+    PARALLEL,
+    /**
+     * One virtual thread per element, at most maxConcurrency at a time; for blocking (I/O) work per element.
+     */
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,259 @@
+package api.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Chooses how to run a pipeline instead of hard-coding stream() or parallelStream() at every call site:
+ *      try (ExecutionPolicy policy = ExecutionPolicy.create()) {
+ *          ExecutionResult<Map<Integer, Long>> byAge = policy.execute(people, Workload.cpu().with(Workload.Stage.GROUPING),
+ *                  stream -> stream.collect(Collectors.groupingBy(Person::getAge, Collectors.counting())));
+ *          ExecutionResult<List<Profile>> profiles = policy.map(people, Workload.blocking(2_000_000), client::fetch);
+ *          System.out.println(byAge.getDecision());   // e.g. PARALLEL x8 (1000000 elements, ~20000us): ...
+ *      }
+ * The rules, from the size of the source and the Workload:
+ * 1. Blocking work per element (map() only) runs on virtual threads, at most maxConcurrency at a time: waiting
+ *    does not need a CPU, so far more elements can be in flight than there are cores.
+ * 2. Computation runs in parallel only when there is more than one worker and the estimated work (size * cost)
+ *    is above the threshold (0.5 ms by default). Below it, splitting, forking and merging cost more than they
+ *    save. Stages such as sorted() or limit() raise the threshold (Workload.Stage), and so does a source that
+ *    cannot be split evenly (e.g. a LinkedList).
+ * 3. Parallel pipelines run on a ForkJoinPool owned by the policy, bounded to its parallelism, so they neither
+ *    compete with nor block other users of the common pool. close() shuts it down; a closed policy rejects
+ *    execute() and map() with an IllegalStateException.
+ * Every run returns its ExecutionDecision (mode, estimate and reason) with the result; decide() gives the
+ * decision without running anything.
+ */
+public final class ExecutionPolicy implements AutoCloseable {
+    static final long DEFAULT_PARALLEL_THRESHOLD_NANOS = 500_000;
+    static final int DEFAULT_MAX_CONCURRENCY = 256;
+    /**
+     * A source that does not split into known sizes (SUBSIZED) needs this much more work for PARALLEL.
+     */
+    static final int UNBALANCED_PENALTY = 8;
+    /**
+     * "Blocking" work shorter than this is mostly CPU after all: a virtual thread costs about a microsecond.
+     */
+    static final long MIN_BLOCKING_NANOS = 10_000;
+
+    private final int parallelism;
+    private final long parallelThresholdNanos;
+    private final int maxConcurrency;
+    private ForkJoinPool pool;
+    private boolean closed;
+
+    private ExecutionPolicy(int parallelism, long parallelThresholdNanos, int maxConcurrency) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        if (parallelThresholdNanos < 0) {
+            throw new IllegalArgumentException("Parallel threshold must not be negative: " + parallelThresholdNanos);
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1: " + maxConcurrency);
+        }
+        this.parallelism = parallelism;
+        this.parallelThresholdNanos = parallelThresholdNanos;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * A policy with one parallel worker per available processor.
+     */
+    public static ExecutionPolicy create() {
+        return create(Runtime.getRuntime().availableProcessors());
+    }
+
+    public static ExecutionPolicy create(int parallelism) {
+        return new ExecutionPolicy(parallelism, DEFAULT_PARALLEL_THRESHOLD_NANOS, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * A new policy that runs in parallel only above this much estimated work.
+     */
+    public ExecutionPolicy withParallelThreshold(long nanos) {
+        return new ExecutionPolicy(parallelism, nanos, maxConcurrency);
+    }
+
+    /**
+     * A new policy that keeps at most this many virtual threads in flight, e.g. the size of a connection pool.
+     */
+    public ExecutionPolicy withMaxConcurrency(int maxConcurrency) {
+        return new ExecutionPolicy(parallelism, parallelThresholdNanos, maxConcurrency);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The decision for a source, without running anything.
+     */
+    public ExecutionDecision decide(Collection<?> source, Workload workload) {
+        return decide(source, workload, true);
+    }
+
+    private ExecutionDecision decide(Collection<?> source, Workload workload, boolean perElement) {
+        long size = source.size();
+        long cost = workload.getCostNanosPerElement();
+        long estimate = size > Long.MAX_VALUE / cost ? Long.MAX_VALUE : size * cost;
+        if (size <= 1) {
+            return new ExecutionDecision(ExecutionMode.SEQUENTIAL, size, estimate, 1, "nothing to split");
+        }
+        if (workload.isBlocking() && cost >= MIN_BLOCKING_NANOS) {
+            if (perElement) {
+                int concurrency = (int) Math.min(size, maxConcurrency);
+                return new ExecutionDecision(ExecutionMode.VIRTUAL_THREADS, size, estimate, concurrency,
+                        "blocking work: one virtual thread per element");
+            }
+            // A whole stream pipeline cannot be fanned out per element; treat its waiting like computing.
+        }
+        if (parallelism == 1) {
+            return new ExecutionDecision(ExecutionMode.SEQUENTIAL, size, estimate, 1, "only one worker");
+        }
+        long threshold = parallelThresholdNanos;
+        List<String> penalties = new ArrayList<>();
+        if (workload.penalty() > 1) {
+            threshold = multiply(threshold, workload.penalty());
+            penalties.add(workload.getStages() + " x" + workload.penalty());
+        }
+        if (!splitsEvenly(source)) {
+            threshold = multiply(threshold, UNBALANCED_PENALTY);
+            penalties.add("uneven splits x" + UNBALANCED_PENALTY);
+        }
+        String limit = "threshold " + threshold / 1000 + "us" + (penalties.isEmpty() ? "" : " " + penalties);
+        if (estimate < threshold) {
+            return new ExecutionDecision(ExecutionMode.SEQUENTIAL, size, estimate, 1, "below " + limit);
+        }
+        return new ExecutionDecision(ExecutionMode.PARALLEL, size, estimate, parallelism, "above " + limit);
+    }
+
+    /**
+     * ArrayList and arrays split in halves of known size. A LinkedList claims SUBSIZED but splits by copying
+     * growing batches into arrays, and a hash set splits by buckets of unknown size.
+     */
+    private static boolean splitsEvenly(Collection<?> source) {
+        if (source instanceof List<?>) {
+            return source instanceof RandomAccess;
+        }
+        return source.spliterator().hasCharacteristics(Spliterator.SUBSIZED);
+    }
+
+    private static long multiply(long value, long factor) {
+        return value > Long.MAX_VALUE / factor ? Long.MAX_VALUE : value * factor;
+    }
+
+    /**
+     * Runs pipeline on a sequential or parallel stream of source, as decided. Never uses virtual threads: a
+     * blocking stage inside a stream cannot be fanned out per element; use map() for that.
+     */
+    public <T, R> ExecutionResult<R> execute(Collection<T> source, Workload workload,
+                                             Function<? super Stream<T>, ? extends R> pipeline) {
+        checkOpen();
+        ExecutionDecision decision = decide(source, workload, false);
+        long start = System.nanoTime();
+        R result = decision.getMode() == ExecutionMode.PARALLEL
+                ? pool().submit(() -> pipeline.apply(source.parallelStream())).join()
+                : pipeline.apply(source.stream());
+        return new ExecutionResult<>(result, decision, System.nanoTime() - start);
+    }
+
+    /**
+     * Applies mapper to every element of source and returns the results in encounter order, sequentially, in
+     * parallel or on virtual threads, as decided. An exception thrown by mapper is rethrown from here; a checked
+     * one (thrown sneakily) is wrapped in a CompletionException.
+     */
+    public <T, R> ExecutionResult<List<R>> map(Collection<T> source, Workload workload,
+                                               Function<? super T, ? extends R> mapper) {
+        checkOpen();
+        ExecutionDecision decision = decide(source, workload, true);
+        long start = System.nanoTime();
+        List<R> result = switch (decision.getMode()) {
+            case SEQUENTIAL -> source.stream().<R>map(mapper).collect(Collectors.toList());
+            case PARALLEL -> pool().submit(() -> source.parallelStream().<R>map(mapper).collect(Collectors.toList()))
+                    .join();
+            case VIRTUAL_THREADS -> mapOnVirtualThreads(source, mapper, decision.getParallelism());
+        };
+        return new ExecutionResult<>(result, decision, System.nanoTime() - start);
+    }
+
+    private static <T, R> List<R> mapOnVirtualThreads(Collection<T> source, Function<? super T, ? extends R> mapper,
+                                                      int concurrency) {
+        Object[] results = new Object[source.size()];
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int index = 0;
+            for (T element : source) {
+                permits.acquireUninterruptibly();
+                if (failure.get() != null) {
+                    permits.release();
+                    break;
+                }
+                int slot = index++;
+                executor.execute(() -> {
+                    try {
+                        results[slot] = mapper.apply(element);
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        if (error != null) {
+            throw new CompletionException(error);
+        }
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Arrays.asList(results);
+        return list;
+    }
+
+    private synchronized void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("ExecutionPolicy is closed");
+        }
+    }
+
+    private synchronized ForkJoinPool pool() {
+        checkOpen();
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Shuts down the parallel pool, if one was started, and rejects later runs. Pipelines that are still running
+     * finish first.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+}
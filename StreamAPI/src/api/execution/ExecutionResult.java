@@ -0,0 +1,36 @@
+package api.execution;
+
+/**
+ * The result of a pipeline run by an ExecutionPolicy, with the decision that was made and the time it took.
+ */
+public final class ExecutionResult<R> {
+    private final R result;
+    private final ExecutionDecision decision;
+    private final long nanos;
+
+    ExecutionResult(R result, ExecutionDecision decision, long nanos) {
+        this.result = result;
+        this.decision = decision;
+        this.nanos = nanos;
+    }
+
+    public R getResult() {
+        return result;
+    }
+
+    public ExecutionDecision getDecision() {
+        return decision;
+    }
+
+    /**
+     * Wall-clock time of the run, to compare with decision.getEstimatedNanos().
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return result + " in " + nanos / 1000 + "us, " + decision;
+    }
+}
@@ -0,0 +1,116 @@
+package api.execution;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * What an ExecutionPolicy knows about a pipeline: the cost of one element, whether that cost is spent waiting
+ * (I/O, remote calls) or computing, and the kinds of stages that make parallel execution more expensive.
+ *      Workload.cpu(50)                                        // ~50ns of computation per element
+ *      Workload.cpu(50).with(Workload.Stage.SORTED)            // ...followed by sorted()
+ *      Workload.blocking(2_000_000)                            // ~2ms waiting on a remote call per element
+ * The cost does not have to be exact; the order of magnitude decides. Pipeline metrics (api.metrics) give
+ * the measured nanos per element of each stage.
+ */
+public final class Workload {
+    /**
+     * Stages whose parallel version needs more work to pay off, with the factor by which they raise the
+     * minimum amount of work for PARALLEL.
+     */
+    public enum Stage {
+        /**
+         * Maps merged in the combiner (groupingBy, toMap): the merge costs about as much as the grouping.
+         */
+        GROUPING(2),
+        /**
+         * sorted(): a full barrier, then a parallel merge sort.
+         */
+        SORTED(4),
+        /**
+         * distinct(): a shared or merged set, and order kept on ordered sources.
+         */
+        DISTINCT(4),
+        /**
+         * limit(), skip(), findFirst(), forEachOrdered(): encounter order must be kept across workers.
+         */
+        ORDERED_SHORT_CIRCUIT(8);
+
+        final int penalty;
+
+        Stage(int penalty) {
+            this.penalty = penalty;
+        }
+    }
+
+    static final long DEFAULT_COST_NANOS = 20;
+
+    private final long costNanosPerElement;
+    private final boolean blocking;
+    private final Set<Stage> stages;
+
+    private Workload(long costNanosPerElement, boolean blocking, Set<Stage> stages) {
+        if (costNanosPerElement <= 0) {
+            throw new IllegalArgumentException("Cost per element must be positive: " + costNanosPerElement);
+        }
+        this.costNanosPerElement = costNanosPerElement;
+        this.blocking = blocking;
+        this.stages = stages;
+    }
+
+    /**
+     * Cheap computation per element (about 20ns, a getter and a comparison).
+     */
+    public static Workload cpu() {
+        return cpu(DEFAULT_COST_NANOS);
+    }
+
+    public static Workload cpu(long costNanosPerElement) {
+        return new Workload(costNanosPerElement, false, Collections.emptySet());
+    }
+
+    /**
+     * Work per element that mostly waits, e.g. an HTTP call or a database lookup.
+     */
+    public static Workload blocking(long costNanosPerElement) {
+        return new Workload(costNanosPerElement, true, Collections.emptySet());
+    }
+
+    /**
+     * The same workload with additional stage types.
+     */
+    public Workload with(Stage... more) {
+        EnumSet<Stage> all = stages.isEmpty() ? EnumSet.noneOf(Stage.class) : EnumSet.copyOf(stages);
+        Collections.addAll(all, more);
+        return new Workload(costNanosPerElement, blocking, Collections.unmodifiableSet(all));
+    }
+
+    public long getCostNanosPerElement() {
+        return costNanosPerElement;
+    }
+
+    public boolean isBlocking() {
+        return blocking;
+    }
+
+    public Set<Stage> getStages() {
+        return stages;
+    }
+
+    /**
+     * Product of the penalties of all stages; 1 when there are none.
+     */
+    int penalty() {
+        int penalty = 1;
+        for (Stage stage : stages) {
+            penalty *= stage.penalty;
+        }
+        return penalty;
+    }
+
+    @Override
+    public String toString() {
+        return (blocking ? "blocking " : "cpu ") + costNanosPerElement + "ns/element"
+                + (stages.isEmpty() ? "" : " " + stages);
+    }
+}
@@ -0,0 +1,100 @@
+package api.external;
+
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * groupingBy() for more elements than fit on the heap. Collectors.groupingBy(Product::getCategory) builds one
+ * Map<String, List<Product>> holding every element; this sorts the elements by key with an ExternalSorter
+ * under a memory budget, then walks the sorted elements and emits one group at a time:
+ *      try (Stream<Map.Entry<String, Long>> counts = ExternalGrouping.groupingBy(products, Product::getCategory,
+ *              Collectors.counting(), RecordCodecs.products(), 256L << 20, Path.of("/tmp"))) {
+ *          counts.forEach(entry -> System.out.println(entry.getKey() + ": " + entry.getValue()));
+ *      }
+ * 1. The groups come in key order, lazily: a group is collected when the stream asks for it.
+ * 2. Each group is reduced by the downstream collector as its elements stream past, so counting(),
+ *    summingInt() or averagingDouble() hold one accumulator, never the group. Only toList()-like collectors
+ *    keep a group in memory, and then one group at a time.
+ * 3. Within a group the elements arrive in the order of the source (the sort is stable).
+ * Close the stream to delete the temp files. Keys must not be null, as with Collectors.groupingBy().
+ */
+public final class ExternalGrouping {
+    private ExternalGrouping() {
+    }
+
+    public static <T, K extends Comparable<? super K>, A, R> Stream<Map.Entry<K, R>> groupingBy(
+            Stream<? extends T> source, Function<? super T, ? extends K> classifier,
+            Collector<? super T, A, R> downstream, RecordCodec<T> codec, long memoryBudgetBytes, Path directory) {
+        return groupingBy(source, classifier, Comparator.naturalOrder(), downstream, codec, memoryBudgetBytes,
+                directory);
+    }
+
+    public static <T, K, A, R> Stream<Map.Entry<K, R>> groupingBy(
+            Stream<? extends T> source, Function<? super T, ? extends K> classifier, Comparator<? super K> keyOrder,
+            Collector<? super T, A, R> downstream, RecordCodec<T> codec, long memoryBudgetBytes, Path directory) {
+        Function<T, K> key = element -> {
+            K value = classifier.apply(element);
+            if (value == null) {
+                throw new NullPointerException("element cannot be mapped to a null key");
+            }
+            return value;
+        };
+        ExternalSorter<T> sorter = new ExternalSorter<>(codec, Comparator.comparing(key, keyOrder),
+                memoryBudgetBytes, directory);
+        Stream<T> sorted;
+        try {
+            sorter.addAll(source);
+            sorted = sorter.sorted();
+        } catch (RuntimeException e) {
+            sorter.close();
+            throw e;
+        }
+        Iterator<T> elements = sorted.iterator();
+        BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        Iterator<Map.Entry<K, R>> groups = new Iterator<>() {
+            private T pending = elements.hasNext() ? elements.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return pending != null;
+            }
+
+            @Override
+            public Map.Entry<K, R> next() {
+                if (pending == null) {
+                    throw new NoSuchElementException();
+                }
+                K groupKey = key.apply(pending);
+                A container = downstream.supplier().get();
+                T element = pending;
+                pending = null;
+                while (true) {
+                    accumulator.accept(container, element);
+                    if (!elements.hasNext()) {
+                        break;
+                    }
+                    element = elements.next();
+                    if (keyOrder.compare(key.apply(element), groupKey) != 0) {
+                        pending = element;
+                        break;
+                    }
+                }
+                return new AbstractMap.SimpleImmutableEntry<>(groupKey, downstream.finisher().apply(container));
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(groups, Spliterator.ORDERED | Spliterator.NONNULL), false
+        ).onClose(sorted::close);
+    }
+}
@@ -0,0 +1,342 @@
+package api.external;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * sorted() for more elements than fit on the heap: an external merge sort under a memory budget.
+ *      try (ExternalSorter<Product> sorter = new ExternalSorter<>(RecordCodecs.products(),
+ *              Comparator.comparing(Product::getName), 256L << 20, Path.of("/tmp"))) {
+ *          sorter.addAll(products);                             // spills sorted runs as the budget fills up
+ *          try (Stream<Product> sorted = sorter.sorted()) {     // lazy k-way merge of the runs
+ *              sorted.forEach(sink);
+ *          }
+ *      }
+ * 1. Elements are collected in memory until their estimated heap size (RecordCodec.estimateBytes()) reaches
+ *    the budget. Then they are sorted and written to a temp file as a "run", through a FileChannel with a
+ *    64 KB buffer, and memory starts over.
+ * 2. sorted() merges the runs, and what is still in memory, with a PriorityQueue of one cursor per run: one
+ *    element per run is on the heap at a time, plus a 64 KB read buffer. More than MAX_FAN_IN runs are first
+ *    merged in balanced passes, each turning every MAX_FAN_IN runs into one, which bounds the open files and
+ *    read buffers and rewrites every element once per pass.
+ * 3. The result is a lazy Stream: each element is read from disk when the pipeline asks for it. Closing the
+ *    stream, or the sorter, deletes the run files.
+ * The sort is stable: equal elements keep the order in which they were added. With no spill at all this is an
+ * ordinary in-memory sort. Elements must not be null. A sorter sorts once: add() is not allowed after sorted().
+ */
+public final class ExternalSorter<T> implements AutoCloseable {
+    static final int MAX_FAN_IN = 64;
+    static final int IO_BUFFER_BYTES = 1 << 16;
+    /**
+     * Heap bytes per buffered element on top of the element itself: its slot in the ArrayList.
+     */
+    private static final long REFERENCE_BYTES = 8;
+
+    private final RecordCodec<T> codec;
+    private final Comparator<? super T> comparator;
+    private final long memoryBudgetBytes;
+    private final Path directory;
+    private final List<Run> runs = new ArrayList<>();
+    private final List<RunReader> readers = new ArrayList<>();
+    private List<T> buffer = new ArrayList<>();
+    private long bufferedBytes;
+    private long size;
+    private int spills;
+    private boolean sorted;
+
+    /**
+     * @param memoryBudgetBytes heap bytes the buffered elements may take before they are spilled (at least 1 KB)
+     * @param directory         where run files are created, e.g. Path.of(System.getProperty("java.io.tmpdir"))
+     */
+    public ExternalSorter(RecordCodec<T> codec, Comparator<? super T> comparator, long memoryBudgetBytes,
+                          Path directory) {
+        if (memoryBudgetBytes < 1024) {
+            throw new IllegalArgumentException("Memory budget must be at least 1024 bytes: " + memoryBudgetBytes);
+        }
+        this.codec = codec;
+        this.comparator = comparator;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.directory = directory;
+    }
+
+    public void add(T element) {
+        if (sorted) {
+            throw new IllegalStateException("sorted() was already called");
+        }
+        if (element == null) {
+            throw new NullPointerException("ExternalSorter does not accept null elements");
+        }
+        buffer.add(element);
+        bufferedBytes += codec.estimateBytes(element) + REFERENCE_BYTES;
+        size++;
+        if (bufferedBytes >= memoryBudgetBytes) {
+            spill();
+        }
+    }
+
+    /**
+     * Adds every element of source, in its encounter order (which a stable sort keeps for equal elements).
+     */
+    public void addAll(Stream<? extends T> source) {
+        source.forEachOrdered(this::add);
+    }
+
+    public void addAll(Iterable<? extends T> source) {
+        for (T element : source) {
+            add(element);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Number of times the buffered elements were spilled to a run file (0: everything fit in memory).
+     */
+    public int spilledRuns() {
+        return spills;
+    }
+
+    private void spill() {
+        buffer.sort(comparator);
+        try {
+            runs.add(Run.write(directory, codec, buffer.iterator()));
+            spills++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill sorted run to " + directory, e);
+        }
+        // A new list rather than clear(): clear() keeps the grown backing array, the largest object here.
+        buffer = new ArrayList<>();
+        bufferedBytes = 0;
+    }
+
+    /**
+     * All elements added, in comparator order, as a lazy stream that deletes the run files when closed.
+     */
+    public Stream<T> sorted() {
+        if (sorted) {
+            throw new IllegalStateException("sorted() was already called");
+        }
+        sorted = true;
+        buffer.sort(comparator);
+        Iterator<T> iterator;
+        try {
+            while (runs.size() + 1 > MAX_FAN_IN) {
+                // One balanced pass: every group of MAX_FAN_IN consecutive runs becomes one run of the next level,
+                // so each element is rewritten once per level (log_64 of the number of runs times in all), and
+                // the runs of a level stay in the order their elements were added, which keeps the sort stable.
+                List<Run> level = new ArrayList<>((runs.size() + MAX_FAN_IN - 1) / MAX_FAN_IN);
+                for (int from = 0; from < runs.size(); from += MAX_FAN_IN) {
+                    List<Run> group = runs.subList(from, Math.min(from + MAX_FAN_IN, runs.size()));
+                    if (group.size() == 1) {
+                        level.add(group.get(0));
+                        continue;
+                    }
+                    try {
+                        level.add(Run.write(directory, codec, merge(group, List.<T>of().iterator())));
+                    } catch (IOException e) {
+                        // close() deletes the runs still in runs; the ones already merged into this level are
+                        // only in level.
+                        for (Run run : level) {
+                            if (!runs.contains(run)) {
+                                run.delete();
+                            }
+                        }
+                        throw e;
+                    }
+                    closeReaders();
+                    for (Run run : group) {
+                        run.delete();
+                    }
+                }
+                runs.clear();
+                runs.addAll(level);
+            }
+            iterator = runs.isEmpty() ? buffer.iterator() : merge(runs, buffer.iterator());
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Could not merge sorted runs in " + directory, e);
+        }
+        buffer = List.of();
+        return StreamSupport.stream(
+                Spliterators.spliterator(iterator, size, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL),
+                false
+        ).onClose(this::close);
+    }
+
+    /**
+     * A k-way merge of runs, followed by the in-memory run memory. Ties go to the earlier source.
+     */
+    private Iterator<T> merge(List<Run> sources, Iterator<T> memory) throws IOException {
+        List<Iterator<T>> cursors = new ArrayList<>(sources.size() + 1);
+        for (Run run : sources) {
+            RunReader reader = new RunReader(run);
+            readers.add(reader);
+            cursors.add(reader);
+        }
+        cursors.add(memory);
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>((a, b) -> {
+            int cmp = comparator.compare(a.element, b.element);
+            return cmp != 0 ? cmp : Integer.compare(a.source, b.source);
+        });
+        for (int i = 0; i < cursors.size(); i++) {
+            if (cursors.get(i).hasNext()) {
+                heads.add(new Head<>(cursors.get(i).next(), i));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                T element = head.element;
+                Iterator<T> cursor = cursors.get(head.source);
+                if (cursor.hasNext()) {
+                    head.element = cursor.next();
+                    heads.add(head);
+                }
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Deletes the run files. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        closeReaders();
+        for (Run run : runs) {
+            run.delete();
+        }
+        runs.clear();
+        buffer = List.of();
+        sorted = true;
+    }
+
+    private void closeReaders() {
+        for (RunReader reader : readers) {
+            reader.close();
+        }
+        readers.clear();
+    }
+
+    private static final class Head<T> {
+        T element;
+        final int source;
+
+        Head(T element, int source) {
+            this.element = element;
+            this.source = source;
+        }
+    }
+
+    /**
+     * A temp file of elements in comparator order.
+     */
+    private static final class Run {
+        final Path file;
+        final long count;
+
+        private Run(Path file, long count) {
+            this.file = file;
+            this.count = count;
+        }
+
+        static <T> Run write(Path directory, RecordCodec<T> codec, Iterator<T> elements) throws IOException {
+            Path file = Files.createTempFile(directory, "sort-", ".run");
+            long count = 0;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Channels.newOutputStream(FileChannel.open(file, StandardOpenOption.WRITE)), IO_BUFFER_BYTES))) {
+                while (elements.hasNext()) {
+                    codec.write(out, elements.next());
+                    count++;
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return new Run(file, count);
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Reads a run back element by element; it knows the count, so it never reads past the end.
+     */
+    private final class RunReader implements Iterator<T> {
+        private final Run run;
+        private final DataInputStream in;
+        private long remaining;
+
+        RunReader(Run run) throws IOException {
+            this.run = run;
+            this.remaining = run.count;
+            this.in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(FileChannel.open(run.file, StandardOpenOption.READ)), IO_BUFFER_BYTES));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                T element = codec.read(in);
+                if (--remaining == 0) {
+                    in.close();
+                }
+                return element;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read sorted run " + run.file, e);
+            }
+        }
+
+        void close() {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // only reading; nothing is lost
+            }
+        }
+    }
+}
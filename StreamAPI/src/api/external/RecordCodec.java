@@ -0,0 +1,23 @@
+package api.external;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes elements to a spill file and reads them back, for ExternalSorter and ExternalGrouping.
+ * RecordCodecs has codecs for String, Person, Product and Employee.
+ */
+public interface RecordCodec<T> {
+    void write(DataOutput out, T value) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    /**
+     * Approximate heap bytes of one element while it waits in memory, to decide when to spill.
+     * Overestimating spills earlier; underestimating can exceed the memory budget.
+     */
+    default long estimateBytes(T value) {
+        return 64;
+    }
+}
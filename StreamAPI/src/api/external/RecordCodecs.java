@@ -0,0 +1,132 @@
+package api.external;
+
+import api.methods.Employee;
+import api.methods.Person;
+import api.methods.Product;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RecordCodecs for the API's element types. Strings are written as a length and UTF-8 bytes (length -1 for
+ * null), so unlike DataOutput.writeUTF() they may be longer than 64 KB.
+ * Heap estimates assume compact (Latin-1) strings: about 40 bytes of String and array headers plus one byte
+ * per character, and 16 bytes of object header plus 4 or 8 per field.
+ */
+public final class RecordCodecs {
+    private static final long STRING_OVERHEAD = 40;
+    private static final long OBJECT_OVERHEAD = 16;
+
+    private RecordCodecs() {
+    }
+
+    public static RecordCodec<String> strings() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, String value) throws IOException {
+                writeString(out, value);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                return readString(in);
+            }
+
+            @Override
+            public long estimateBytes(String value) {
+                return stringBytes(value);
+            }
+        };
+    }
+
+    public static RecordCodec<Person> people() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, Person value) throws IOException {
+                writeString(out, value.getName());
+                out.writeInt(value.getAge());
+            }
+
+            @Override
+            public Person read(DataInput in) throws IOException {
+                return new Person(readString(in), in.readInt());
+            }
+
+            @Override
+            public long estimateBytes(Person value) {
+                return OBJECT_OVERHEAD + 8 + stringBytes(value.getName());
+            }
+        };
+    }
+
+    public static RecordCodec<Product> products() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, Product value) throws IOException {
+                writeString(out, value.getName());
+                writeString(out, value.getCategory());
+            }
+
+            @Override
+            public Product read(DataInput in) throws IOException {
+                return new Product(readString(in), readString(in));
+            }
+
+            @Override
+            public long estimateBytes(Product value) {
+                return OBJECT_OVERHEAD + 8 + stringBytes(value.getName()) + stringBytes(value.getCategory());
+            }
+        };
+    }
+
+    public static RecordCodec<Employee> employees() {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, Employee value) throws IOException {
+                writeString(out, value.getName());
+                Double salary = value.getSalary();
+                out.writeBoolean(salary != null);
+                if (salary != null) {
+                    out.writeDouble(salary);
+                }
+            }
+
+            @Override
+            public Employee read(DataInput in) throws IOException {
+                String name = readString(in);
+                return new Employee(name, in.readBoolean() ? in.readDouble() : null);
+            }
+
+            @Override
+            public long estimateBytes(Employee value) {
+                return OBJECT_OVERHEAD + 8 + stringBytes(value.getName()) + (value.getSalary() == null ? 0 : 16);
+            }
+        };
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + value.length();
+    }
+}
@@ -0,0 +1,89 @@
+package api.flow;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * The end of a Flow pipeline: passes every item to a consumer and keeps batchSize items in demand.
+ * It requests batchSize items up front and tops the demand up once half of them have arrived, so the publisher
+ * sees one request(n) per half batch rather than one per item, and never more than batchSize in flight.
+ * completion() completes when the publisher does, or completes exceptionally with its error (or with an
+ * exception thrown by the consumer, after which the subscription is cancelled).
+ */
+public class BatchingSubscriber<T> implements Flow.Subscriber<T> {
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final Consumer<? super T> consumer;
+    private final int batchSize;
+    private final int replenishAt;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private long received;
+
+    public BatchingSubscriber(Consumer<? super T> consumer) {
+        this(consumer, DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchingSubscriber(Consumer<? super T> consumer, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        this.consumer = Objects.requireNonNull(consumer, "consumer");
+        this.batchSize = batchSize;
+        this.replenishAt = Math.max(1, batchSize / 2);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (completion.isDone()) {
+            return;
+        }
+        try {
+            consumer.accept(item);
+        } catch (Throwable e) {
+            subscription.cancel();
+            completion.completeExceptionally(e);
+            return;
+        }
+        if (++received == replenishAt) {
+            received = 0;
+            subscription.request(replenishAt);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(null);
+    }
+
+    /**
+     * Stops receiving items; completion() completes normally.
+     */
+    public void cancel() {
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        completion.complete(null);
+    }
+
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+}
@@ -0,0 +1,229 @@
+package api.flow;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base of every processor in FlowOperators: turns each upstream item into at most one downstream item, with
+ * demand-driven backpressure and a bounded buffer.
+ * Upstream: on subscription the operator requests bufferSize items (prefetch). It asks for more only when at
+ * least a quarter of the buffer is free again, i.e. items were delivered downstream or dropped, and then in
+ * one request(n) for all of them instead of request(1) per item.
+ * Buffer: an upstream that respects its demand can never overflow it; one that does not gets cancelled and
+ * the error is passed downstream. Only onNext() adds to it and only drain() takes from it, so it is a
+ * single-producer single-consumer ring without locks (SpscRing).
+ * Downstream: items are delivered only against demand. All downstream signals go through drain(), which one
+ * thread at a time runs (the work-in-progress counter), whether it is triggered by onNext() on the upstream
+ * thread or by request() on the downstream thread. So signals are never concurrent and always in order.
+ * Completion: the buffered items are delivered first, then the value of complete() (e.g. the result of a
+ * reduce), then onComplete(). An error is delivered after the buffered items.
+ */
+abstract class FlowOperator<T, R> implements Flow.Processor<T, R>, Flow.Subscription {
+    private final int bufferSize;
+    private final int replenishAt;
+    private final SpscRing<R> queue;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong handled = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super R> downstream;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private volatile IllegalArgumentException invalidRequest;
+    private Throwable error;
+    private R last;
+    private boolean terminated;
+
+    FlowOperator(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.replenishAt = Math.max(1, bufferSize / 4);
+        this.queue = new SpscRing<>(bufferSize);
+    }
+
+    /**
+     * The item to pass downstream for item, or null to drop it. Called on the upstream thread, one at a time.
+     */
+    abstract R apply(T item);
+
+    /**
+     * A last item to pass downstream when the upstream completes, or null for none.
+     */
+    R complete() {
+        return null;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("This processor already has a subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(this);
+        // Published only now, so that no other signal can overtake onSubscribe().
+        downstream = subscriber;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        subscription.request(bufferSize);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (done || cancelled) {
+            return;
+        }
+        R result;
+        try {
+            result = apply(item);
+        } catch (Throwable e) {
+            upstream.cancel();
+            onError(e);
+            return;
+        }
+        if (result == null) {
+            handled.incrementAndGet();
+        } else if (!queue.offer(result)) {
+            upstream.cancel();
+            onError(new IllegalStateException("Upstream sent more than the " + bufferSize + " items requested"));
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) {
+            return;
+        }
+        error = throwable;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        try {
+            last = complete();
+        } catch (Throwable e) {
+            error = e;
+        }
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            invalidRequest = new IllegalArgumentException("request(n) needs n > 0: " + n);
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            drain();
+            return;
+        }
+        requested.accumulateAndGet(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super R> subscriber = downstream;
+            if (cancelled || terminated) {
+                queue.clear();
+            } else if (subscriber != null && invalidRequest != null) {
+                terminated = true;
+                queue.clear();
+                subscriber.onError(invalidRequest);
+            } else if (subscriber != null) {
+                long demand = requested.get();
+                long emitted = 0;
+                long delivered = 0;
+                while (emitted != demand) {
+                    boolean finished = done;
+                    R item = queue.poll();
+                    if (item == null) {
+                        if (!finished || error != null || last == null) {
+                            break;
+                        }
+                        item = last;
+                        last = null;
+                    } else {
+                        delivered++;
+                    }
+                    subscriber.onNext(item);
+                    emitted++;
+                    if (cancelled) {
+                        break;
+                    }
+                }
+                if (!cancelled && done && queue.isEmpty() && (last == null || error != null)) {
+                    terminated = true;
+                    if (error != null) {
+                        subscriber.onError(error);
+                    } else {
+                        subscriber.onComplete();
+                    }
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                replenish(delivered);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Requests as many items as were handled since the last request, once there are at least replenishAt.
+     */
+    private void replenish(long delivered) {
+        long credit = delivered == 0 ? handled.get() : handled.addAndGet(delivered);
+        Flow.Subscription subscription = upstream;
+        if (credit >= replenishAt && subscription != null && !done && !cancelled) {
+            handled.addAndGet(-credit);
+            subscription.request(credit);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package api.flow;
+
+import api.distinct.DistinctFilter;
+import api.statistics.DoubleStatistics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.concurrent.Flow;
+
+/**
+ * The API operations as java.util.concurrent.Flow processors, for events that keep arriving (e.g. from a
+ * socket) instead of a finite collection. A pipeline is built by subscribing processors to each other:
+ *      FlowOperators operators = FlowOperators.create();
+ *      Flow.Processor<Person, Person> adults = operators.filter(Person::isAdult);
+ *      Flow.Processor<Person, Map.Entry<Integer, Long>> byAge = operators.countingBy(Person::getAge);
+ *      publisher.subscribe(adults);
+ *      adults.subscribe(byAge);
+ *      byAge.subscribe(new BatchingSubscriber<>(entry -> dashboard.update(entry.getKey(), entry.getValue())));
+ * Every processor has a bounded buffer of bufferSize items and never requests more than fits into it, so a slow
+ * consumer slows the publisher down instead of filling the heap (see FlowOperator). Requests upstream are
+ * batched: one request(n) per quarter of the buffer. filter, map and statistics keep fixed state, so their
+ * memory does not grow however long the input runs. distinct keeps what its DistinctFilter keeps, and countingBy
+ * keeps one count per distinct group, so its memory grows with the number of groups (not with the number of
+ * items); classify into a bounded set of keys (e.g. age brackets instead of user ids) on an endless input.
+ * Streams compute one final result; on an unbounded input there is no "final", so countingBy() and
+ * statistics() emit running results. reduce() emits its result when the input completes.
+ * Each processor has exactly one subscriber, and its functions are called on the publisher's thread.
+ */
+public final class FlowOperators {
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final int bufferSize;
+
+    private FlowOperators(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    public static FlowOperators create() {
+        return new FlowOperators(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Operators whose processors buffer at most bufferSize items each.
+     */
+    public static FlowOperators create(int bufferSize) {
+        return new FlowOperators(bufferSize);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public <T> Flow.Processor<T, T> filter(Predicate<? super T> predicate) {
+        return new FlowOperator<>(bufferSize) {
+            @Override
+            T apply(T item) {
+                return predicate.test(item) ? item : null;
+            }
+        };
+    }
+
+    /**
+     * mapper must not return null, which Flow does not allow as an item; a null fails the pipeline.
+     */
+    public <T, R> Flow.Processor<T, R> map(Function<? super T, ? extends R> mapper) {
+        return new FlowOperator<>(bufferSize) {
+            @Override
+            R apply(T item) {
+                R result = mapper.apply(item);
+                if (result == null) {
+                    throw new NullPointerException("map() function returned null for " + item);
+                }
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Drops items equal to one of the last maxKeys distinct items seen. Exact while the input has at most
+     * maxKeys distinct items; beyond that the least recently seen one is forgotten and may pass again.
+     */
+    public <T> Flow.Processor<T, T> distinct(int maxKeys) {
+        return distinct(Function.identity(), maxKeys);
+    }
+
+    /**
+     * Drops items whose key equals one of the last maxKeys distinct keys seen, e.g. a repeated event id.
+     */
+    public <T, K> Flow.Processor<T, T> distinct(Function<? super T, ? extends K> key, int maxKeys) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys must be at least 1: " + maxKeys);
+        }
+        // Access order: a key seen again moves to the end, so the eldest entry is the least recently seen key.
+        Map<K, Boolean> recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+                return size() > maxKeys;
+            }
+        };
+        return new FlowOperator<>(bufferSize) {
+            @Override
+            T apply(T item) {
+                return recent.put(key.apply(item), Boolean.TRUE) == null ? item : null;
+            }
+        };
+    }
+
+    /**
+     * Distinct with a DistinctFilter, e.g. DistinctFilter.approximate(...) for fixed memory without forgetting,
+     * at the price of rare false drops, or DistinctFilter.spilling(...) for exact results on disk.
+     */
+    public <T> Flow.Processor<T, T> distinct(DistinctFilter<? super T> filter) {
+        return filter(filter::test);
+    }
+
+    /**
+     * For every item, the new count of its group: the running groupingBy(classifier, counting()), as a stream
+     * of changes. Keeps one count per distinct group.
+     */
+    public <T, K> Flow.Processor<T, Map.Entry<K, Long>> countingBy(Function<? super T, ? extends K> classifier) {
+        Map<K, long[]> counts = new HashMap<>();
+        return new FlowOperator<>(bufferSize) {
+            @Override
+            Map.Entry<K, Long> apply(T item) {
+                K key = classifier.apply(item);
+                long[] count = counts.computeIfAbsent(key, k -> new long[1]);
+                return Map.entry(key, ++count[0]);
+            }
+        };
+    }
+
+    /**
+     * Running statistics of mapper: a snapshot after every every items, and a final one on completion, even
+     * when the last item already completed a snapshot (the final one then repeats it) or no items arrived.
+     * Every snapshot is a separate DoubleStatistics that the subscriber may keep.
+     */
+    public <T> Flow.Processor<T, DoubleStatistics> statistics(ToDoubleFunction<? super T> mapper, int every) {
+        if (every < 1) {
+            throw new IllegalArgumentException("every must be at least 1: " + every);
+        }
+        DoubleStatistics statistics = new DoubleStatistics();
+        return new FlowOperator<>(bufferSize) {
+            long sinceSnapshot;
+
+            @Override
+            DoubleStatistics apply(T item) {
+                statistics.accept(mapper.applyAsDouble(item));
+                if (++sinceSnapshot < every) {
+                    return null;
+                }
+                sinceSnapshot = 0;
+                return new DoubleStatistics().combine(statistics);
+            }
+
+            @Override
+            DoubleStatistics complete() {
+                return new DoubleStatistics().combine(statistics);
+            }
+        };
+    }
+
+    /**
+     * Emits the reduction of all items once the input completes, like stream.reduce(identity, accumulator).
+     */
+    public <T> Flow.Processor<T, T> reduce(T identity, BinaryOperator<T> accumulator) {
+        return new FlowOperator<>(bufferSize) {
+            T result = identity;
+
+            @Override
+            T apply(T item) {
+                result = accumulator.apply(result, item);
+                return null;
+            }
+
+            @Override
+            T complete() {
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Like stream.reduce(accumulator): emits nothing when the input was empty.
+     */
+    public <T> Flow.Processor<T, T> reduce(BinaryOperator<T> accumulator) {
+        return new FlowOperator<>(bufferSize) {
+            T result;
+
+            @Override
+            T apply(T item) {
+                result = result == null ? item : accumulator.apply(result, item);
+                return null;
+            }
+
+            @Override
+            T complete() {
+                return result;
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package api.flow;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Publisher of the elements of an Iterable, strictly on demand: items are emitted on the thread that calls
+ * request(), and only as many as were requested. Nothing is buffered and no thread is started, which makes it
+ * the in-process source for tests and benchmarks of a Flow pipeline:
+ *      new IterablePublisher<>(people).subscribe(operators.filter(Person::isAdult));
+ * Unlike SubmissionPublisher, the publisher can never get ahead of its subscriber. Each subscriber gets its own
+ * iteration of the Iterable.
+ */
+public class IterablePublisher<T> implements Flow.Publisher<T> {
+    private final Iterable<? extends T> source;
+
+    public IterablePublisher(Iterable<? extends T> source) {
+        this.source = Objects.requireNonNull(source, "source");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        IteratorSubscription<T> subscription = new IteratorSubscription<>(subscriber, source.iterator());
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    private static final class IteratorSubscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Iterator<? extends T> iterator;
+        private final AtomicLong requested = new AtomicLong();
+        // Also guards against recursion: a request() from inside onNext() only adds demand to the running loop.
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private boolean terminated;
+
+        IteratorSubscription(Flow.Subscriber<? super T> subscriber, Iterator<? extends T> iterator) {
+            this.subscriber = subscriber;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("request(n) needs n > 0: " + n));
+                return;
+            }
+            requested.accumulateAndGet(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long demand = requested.get();
+                long emitted = 0;
+                while (!cancelled && !terminated) {
+                    boolean hasNext;
+                    T item = null;
+                    try {
+                        hasNext = iterator.hasNext();
+                        if (hasNext && emitted != demand) {
+                            item = Objects.requireNonNull(iterator.next(), "Flow items must not be null");
+                        }
+                    } catch (Throwable e) {
+                        terminated = true;
+                        subscriber.onError(e);
+                        break;
+                    }
+                    if (!hasNext) {
+                        terminated = true;
+                        subscriber.onComplete();
+                        break;
+                    }
+                    if (emitted == demand) {
+                        break;
+                    }
+                    subscriber.onNext(item);
+                    emitted++;
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package api.flow;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded ring buffer for one producer thread and one consumer thread at a time.
+ * Each side owns one counter and only reads the other's, so neither offer() nor poll() takes a lock or does a
+ * compare-and-set: the release write of a counter publishes the slot written before it.
+ */
+final class SpscRing<E> {
+    private final Object[] slots;
+    private final int mask;
+    private final int capacity;
+    private final AtomicLong producer = new AtomicLong();
+    private final AtomicLong consumer = new AtomicLong();
+
+    SpscRing(int capacity) {
+        this.capacity = capacity;
+        this.slots = new Object[Integer.highestOneBit(Math.max(1, capacity - 1)) << 1];
+        this.mask = slots.length - 1;
+    }
+
+    boolean offer(E element) {
+        long index = producer.getPlain();
+        if (index - consumer.getAcquire() >= capacity) {
+            return false;
+        }
+        slots[(int) index & mask] = element;
+        producer.setRelease(index + 1);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long index = consumer.getPlain();
+        if (index == producer.getAcquire()) {
+            return null;
+        }
+        int slot = (int) index & mask;
+        E element = (E) slots[slot];
+        slots[slot] = null;
+        consumer.setRelease(index + 1);
+        return element;
+    }
+
+    boolean isEmpty() {
+        return consumer.getAcquire() == producer.getAcquire();
+    }
+
+    void clear() {
+        while (poll() != null) {
+            // drop
+        }
+    }
+}
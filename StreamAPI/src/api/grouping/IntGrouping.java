@@ -0,0 +1,169 @@
+package api.grouping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Group-by and group-and-count for int keys (ages, lengths, codes) without boxing.
+ * There are two ways to run it:
+ * 1. As a Collector, a drop-in for Collectors.groupingBy(classifier) and
+ *    Collectors.groupingBy(classifier, Collectors.counting()):
+ *      people.stream().collect(IntGrouping.counting(Person::getAge))
+ *    Under parallel() every fork/join leaf fills its own partial map, and the partial maps are merged
+ *    when the leaves are joined, so no map is ever shared between threads.
+ * 2. Directly over a List with countParallel()/groupParallel(), which split the index range with a
+ *    RecursiveTask on a given ForkJoinPool (the common pool by default) using the same partial-map-and-merge
+ *    scheme, without the per-element overhead of the stream machinery.
+ * Both keep the encounter order of the elements inside each group, like Collectors.groupingBy().
+ */
+public final class IntGrouping {
+    /**
+     * Below this many elements a task is counted directly instead of being split further.
+     */
+    static final int MIN_SPLIT_SIZE = 1 << 13;
+
+    private IntGrouping() {
+    }
+
+    public static <T> Collector<T, ?, IntLongHashMap> counting(ToIntFunction<? super T> classifier) {
+        return Collector.of(
+                IntLongHashMap::new,
+                (counts, element) -> counts.increment(classifier.applyAsInt(element)),
+                IntLongHashMap::merge,
+                Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+
+    public static <T> Collector<T, ?, IntObjectHashMap<List<T>>> groupingBy(ToIntFunction<? super T> classifier) {
+        return Collector.of(
+                IntObjectHashMap::new,
+                (groups, element) -> groups.computeIfAbsent(classifier.applyAsInt(element), key -> new ArrayList<>())
+                        .add(element),
+                IntGrouping::mergeGroups,
+                Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+
+    public static <T> IntLongHashMap count(List<T> elements, ToIntFunction<? super T> classifier) {
+        IntLongHashMap counts = new IntLongHashMap();
+        for (T element : elements) {
+            counts.increment(classifier.applyAsInt(element));
+        }
+        return counts;
+    }
+
+    public static <T> IntObjectHashMap<List<T>> group(List<T> elements, ToIntFunction<? super T> classifier) {
+        IntObjectHashMap<List<T>> groups = new IntObjectHashMap<>();
+        for (T element : elements) {
+            groups.computeIfAbsent(classifier.applyAsInt(element), key -> new ArrayList<>()).add(element);
+        }
+        return groups;
+    }
+
+    public static <T> IntLongHashMap countParallel(List<T> elements, ToIntFunction<? super T> classifier) {
+        return countParallel(elements, classifier, ForkJoinPool.commonPool());
+    }
+
+    public static <T> IntLongHashMap countParallel(List<T> elements, ToIntFunction<? super T> classifier,
+                                                   ForkJoinPool pool) {
+        List<T> source = randomAccess(elements);
+        return pool.invoke(new CountTask<>(source, classifier, 0, source.size(), splitSize(source, pool)));
+    }
+
+    public static <T> IntObjectHashMap<List<T>> groupParallel(List<T> elements, ToIntFunction<? super T> classifier) {
+        return groupParallel(elements, classifier, ForkJoinPool.commonPool());
+    }
+
+    public static <T> IntObjectHashMap<List<T>> groupParallel(List<T> elements, ToIntFunction<? super T> classifier,
+                                                              ForkJoinPool pool) {
+        List<T> source = randomAccess(elements);
+        return pool.invoke(new GroupTask<>(source, classifier, 0, source.size(), splitSize(source, pool)));
+    }
+
+    private static <T> List<T> randomAccess(List<T> elements) {
+        return elements instanceof RandomAccess ? elements : new ArrayList<>(elements);
+    }
+
+    /**
+     * About four leaves per worker: enough to balance uneven workers without creating many small partial maps.
+     */
+    private static int splitSize(List<?> elements, ForkJoinPool pool) {
+        return Math.max(MIN_SPLIT_SIZE, elements.size() / (pool.getParallelism() * 4));
+    }
+
+    private static <T> IntObjectHashMap<List<T>> mergeGroups(IntObjectHashMap<List<T>> left,
+                                                             IntObjectHashMap<List<T>> right) {
+        return left.merge(right, (leftGroup, rightGroup) -> {
+            leftGroup.addAll(rightGroup);
+            return leftGroup;
+        });
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable; these tasks are never serialized
+    private static final class CountTask<T> extends RecursiveTask<IntLongHashMap> {
+        private final List<T> elements;
+        private final ToIntFunction<? super T> classifier;
+        private final int from;
+        private final int to;
+        private final int splitSize;
+
+        CountTask(List<T> elements, ToIntFunction<? super T> classifier, int from, int to, int splitSize) {
+            this.elements = elements;
+            this.classifier = classifier;
+            this.from = from;
+            this.to = to;
+            this.splitSize = splitSize;
+        }
+
+        @Override
+        protected IntLongHashMap compute() {
+            if (to - from <= splitSize) {
+                IntLongHashMap counts = new IntLongHashMap();
+                for (int i = from; i < to; i++) {
+                    counts.increment(classifier.applyAsInt(elements.get(i)));
+                }
+                return counts;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask<T> right = new CountTask<>(elements, classifier, middle, to, splitSize);
+            right.fork();
+            IntLongHashMap left = new CountTask<>(elements, classifier, from, middle, splitSize).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable; these tasks are never serialized
+    private static final class GroupTask<T> extends RecursiveTask<IntObjectHashMap<List<T>>> {
+        private final List<T> elements;
+        private final ToIntFunction<? super T> classifier;
+        private final int from;
+        private final int to;
+        private final int splitSize;
+
+        GroupTask(List<T> elements, ToIntFunction<? super T> classifier, int from, int to, int splitSize) {
+            this.elements = elements;
+            this.classifier = classifier;
+            this.from = from;
+            this.to = to;
+            this.splitSize = splitSize;
+        }
+
+        @Override
+        protected IntObjectHashMap<List<T>> compute() {
+            if (to - from <= splitSize) {
+                return group(elements.subList(from, to), classifier);
+            }
+            int middle = (from + to) >>> 1;
+            GroupTask<T> right = new GroupTask<>(elements, classifier, middle, to, splitSize);
+            right.fork();
+            IntObjectHashMap<List<T>> left = new GroupTask<>(elements, classifier, from, middle, splitSize).compute();
+            // Left before right keeps the encounter order inside every group.
+            return mergeGroups(left, right.join());
+        }
+    }
+}
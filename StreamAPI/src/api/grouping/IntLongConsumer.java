@@ -0,0 +1,9 @@
+package api.grouping;
+
+/**
+ * A (int key, long value) consumer, the primitive form of BiConsumer&lt;Integer, Long&gt;.
+ */
+@FunctionalInterface
+public interface IntLongConsumer {
+    void accept(int key, long value);
+}
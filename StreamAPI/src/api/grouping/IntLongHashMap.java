@@ -0,0 +1,216 @@
+package api.grouping;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An int to long hash map for counters, without boxing.
+ * Collectors.groupingBy(Person::getAge, Collectors.counting()) stores an Integer key and a Long value per group
+ * and allocates a new Long on every increment. This map keeps keys and values in two primitive arrays and
+ * resolves collisions with open addressing (linear probing), so increment() never allocates unless the table grows.
+ * Not thread-safe: in parallel code every worker fills its own map and the maps are combined with merge().
+ */
+public class IntLongHashMap {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntLongHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntLongHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        long needed = Math.max(DEFAULT_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR));
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    static int slot(int key, int mask) {
+        // Fibonacci hashing spreads consecutive keys (ages, lengths, ids) across the table.
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int indexOf(int key) {
+        int index = slot(key, mask);
+        while (used[index]) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * The value for the key, or 0 when the key is absent (the natural default for counters).
+     */
+    public long get(int key) {
+        return getOrDefault(key, 0L);
+    }
+
+    public long getOrDefault(int key, long defaultValue) {
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    public void put(int key, long value) {
+        int index = slot(key, mask);
+        while (used[index]) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        insert(index, key, value);
+    }
+
+    /**
+     * Adds delta to the value of the key (starting from 0) and returns the new value.
+     */
+    public long addTo(int key, long delta) {
+        int index = slot(key, mask);
+        while (used[index]) {
+            if (keys[index] == key) {
+                return values[index] += delta;
+            }
+            index = (index + 1) & mask;
+        }
+        insert(index, key, delta);
+        return delta;
+    }
+
+    public long increment(int key) {
+        return addTo(key, 1L);
+    }
+
+    private void insert(int index, int key, long value) {
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = slot(oldKeys[i], mask);
+                while (used[index]) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                used[index] = true;
+            }
+        }
+    }
+
+    /**
+     * Adds every entry of other into this map, summing values of keys present in both.
+     * This is the combiner for partial counts built by different threads.
+     */
+    public IntLongHashMap merge(IntLongHashMap other) {
+        other.forEach(this::addTo);
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Sum of all values, e.g. the total number of elements that were counted.
+     */
+    public long total() {
+        long total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                total += values[i];
+            }
+        }
+        return total;
+    }
+
+    public void forEach(IntLongConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Keys in ascending order.
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Boxed copy, for printing or for code that expects the Collectors.counting() result type.
+     */
+    public Map<Integer, Long> toMap() {
+        Map<Integer, Long> map = new HashMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int key : keys()) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(get(key));
+        }
+        return builder.append('}').toString();
+    }
+}
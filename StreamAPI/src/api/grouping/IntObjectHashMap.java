@@ -0,0 +1,190 @@
+package api.grouping;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * An int to object hash map, the unboxed-key form of Map&lt;Integer, V&gt;.
+ * Keys live in an int[] and collisions are resolved with open addressing (linear probing), so looking up
+ * a group never creates an Integer. Not thread-safe; combine per-thread maps with merge().
+ */
+public class IntObjectHashMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntObjectHashMap() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // A slot is in use when its value is non-null, so null values are not supported.
+    private int indexOf(int key) {
+        int index = IntLongHashMap.slot(key, mask);
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("IntObjectHashMap does not accept null values");
+        }
+        int index = IntLongHashMap.slot(key, mask);
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                V old = (V) values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+        insert(index, key, value);
+        return null;
+    }
+
+    /**
+     * Returns the value for the key, creating it with the factory on first use (like Map.computeIfAbsent,
+     * but the factory gets the primitive key). Also like Map.computeIfAbsent, a factory that returns null stores
+     * nothing and null is returned.
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int key, IntFunction<? extends V> factory) {
+        int index = IntLongHashMap.slot(key, mask);
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        V value = factory.apply(key);
+        if (value != null) {
+            insert(index, key, value);
+        }
+        return value;
+    }
+
+    private void insert(int index, int key, Object value) {
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int index = IntLongHashMap.slot(oldKeys[i], mask);
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Moves every entry of other into this map; values of keys present in both are combined with
+     * mergeFunction(thisValue, otherValue).
+     */
+    @SuppressWarnings("unchecked")
+    public IntObjectHashMap<V> merge(IntObjectHashMap<V> other, BinaryOperator<V> mergeFunction) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.values[i] != null) {
+                int key = other.keys[i];
+                V value = (V) other.values[i];
+                V existing = get(key);
+                put(key, existing == null ? value : mergeFunction.apply(existing, value));
+            }
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjIntConsumer<? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                action.accept((V) values[i], keys[i]);
+            }
+        }
+    }
+
+    /**
+     * Keys in ascending order.
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                result[n++] = keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Boxed copy, for printing or for code that expects the Collectors.groupingBy() result type.
+     */
+    public Map<Integer, V> toMap() {
+        Map<Integer, V> map = new HashMap<>();
+        forEach((value, key) -> map.put(key, value));
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int key : keys()) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(get(key));
+        }
+        return builder.append('}').toString();
+    }
+}
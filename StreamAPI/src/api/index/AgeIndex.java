@@ -0,0 +1,227 @@
+package api.index;
+
+import api.methods.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * A secondary index over the ages of a list of people, so that range queries do not scan every Person:
+ *      AgeIndex index = AgeIndex.of(people);
+ *      index.count(AgeRange.greaterThan(30));          // O(1)
+ *      index.findFirst(AgeRange.adults());             // the same person as stream().filter(...).findFirst()
+ *      index.inRange(AgeRange.between(20, 29));        // O(1) view, ordered by age
+ *      index.count(p -> p.getName().startsWith("J"));  // not a range: falls back to a scan
+ * Layout: the people are sorted by age with a stable counting sort (so equal ages keep their list order), next
+ * to an int[] of their list positions. starts[age - minAge] is where each age begins, so the bounds of any
+ * range are two array reads: a range count is O(1), and a range of matching people is a contiguous slice.
+ * Ages spanning more than MAX_BUCKET_SPAN values (e.g. one bogus age of 100000) would make starts too large;
+ * such an index binary-searches a sorted int[] of ages instead, O(log n) per bound.
+ * The index is a snapshot of the ages at of(): rebuild it after setAge() or after the list changes. For counts
+ * over a collection that changes all the time, see api.live.LivePeople.
+ */
+public final class AgeIndex {
+    static final int MAX_BUCKET_SPAN = 1 << 16;
+
+    private final Person[] people;
+    private final Person[] sorted;
+    private final int[] positions;
+    private final int[] ages;
+    private final int minAge;
+    private final int maxAge;
+    private final int[] starts;
+
+    private AgeIndex(Person[] people) {
+        this.people = people;
+        int n = people.length;
+        int[] personAges = new int[n];
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int age = people[i].getAge();
+            personAges[i] = age;
+            min = Math.min(min, age);
+            max = Math.max(max, age);
+        }
+        this.minAge = min;
+        this.maxAge = max;
+        this.sorted = new Person[n];
+        this.positions = new int[n];
+        this.ages = new int[n];
+        if (n > 0 && (long) max - min < MAX_BUCKET_SPAN) {
+            // Counting sort: count per age, prefix sums, then place every person after the earlier ones.
+            int[] bounds = new int[max - min + 2];
+            for (int age : personAges) {
+                bounds[age - min + 1]++;
+            }
+            for (int i = 1; i < bounds.length; i++) {
+                bounds[i] += bounds[i - 1];
+            }
+            this.starts = bounds.clone();
+            for (int i = 0; i < n; i++) {
+                int slot = bounds[personAges[i] - min]++;
+                sorted[slot] = people[i];
+                positions[slot] = i;
+                ages[slot] = personAges[i];
+            }
+        } else {
+            // (age, position) packed into one long: sorting the longs sorts by age, then by position.
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = ((long) personAges[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            for (int slot = 0; slot < n; slot++) {
+                int i = (int) keys[slot];
+                sorted[slot] = people[i];
+                positions[slot] = i;
+                ages[slot] = personAges[i];
+            }
+            this.starts = null;
+        }
+    }
+
+    public static AgeIndex of(List<Person> people) {
+        return new AgeIndex(people.toArray(new Person[0]));
+    }
+
+    public int size() {
+        return people.length;
+    }
+
+    /**
+     * True when count(range) and the bounds of inRange() are O(1); false when they binary-search.
+     */
+    public boolean isBucketed() {
+        return starts != null;
+    }
+
+    /**
+     * First sorted slot with an age >= age.
+     */
+    private int lowerBound(long age) {
+        if (people.length == 0 || age <= minAge) {
+            return 0;
+        }
+        if (age > maxAge) {
+            return people.length;
+        }
+        if (starts != null) {
+            return starts[(int) (age - minAge)];
+        }
+        int low = 0;
+        int high = ages.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ages[middle] < age) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int from(AgeRange range) {
+        return lowerBound(range.getMin());
+    }
+
+    private int to(AgeRange range) {
+        return range.isEmpty() ? from(range) : lowerBound((long) range.getMax() + 1);
+    }
+
+    /**
+     * The people in range, ordered by age (and by list position within one age), as an unmodifiable view.
+     */
+    public List<Person> inRange(AgeRange range) {
+        int from = from(range);
+        int to = Math.max(from, to(range));
+        return Collections.unmodifiableList(Arrays.asList(sorted).subList(from, to));
+    }
+
+    /**
+     * The number of people matching predicate: O(1) for a bucketed AgeRange, a scan for anything else.
+     */
+    public long count(Predicate<? super Person> predicate) {
+        if (predicate instanceof AgeRange range) {
+            return Math.max(0, to(range) - from(range));
+        }
+        long count = 0;
+        for (Person person : people) {
+            if (predicate.test(person)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The first matching person in list order, like people.stream().filter(predicate).findFirst().
+     * For an AgeRange this looks at the first person of every age in the range, which has the smallest list
+     * position of its age; without buckets it looks at every person in the range.
+     */
+    public Optional<Person> findFirst(Predicate<? super Person> predicate) {
+        if (predicate instanceof AgeRange range) {
+            int from = from(range);
+            int to = to(range);
+            int first = Integer.MAX_VALUE;
+            if (starts != null) {
+                for (int slot = from; slot < to; slot = starts[ages[slot] - minAge + 1]) {
+                    first = Math.min(first, positions[slot]);
+                }
+            } else {
+                for (int slot = from; slot < to; slot++) {
+                    first = Math.min(first, positions[slot]);
+                }
+            }
+            return first == Integer.MAX_VALUE ? Optional.empty() : Optional.of(people[first]);
+        }
+        for (Person person : people) {
+            if (predicate.test(person)) {
+                return Optional.of(person);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The matching people in list order, like people.stream().filter(predicate).toList().
+     * For an AgeRange only the people in the range are touched, plus a bitmap of one bit per person that puts
+     * them back in list order. When the order does not matter, inRange() avoids the bitmap and the copy.
+     */
+    public List<Person> filter(Predicate<? super Person> predicate) {
+        if (predicate instanceof AgeRange range) {
+            int from = from(range);
+            int to = to(range);
+            if (from >= to) {
+                return List.of();
+            }
+            // Mark the matching positions in a bitmap (n / 8 bytes, usually in cache), then walk it in order:
+            // O(n / 64 + matches), and no sort.
+            long[] bits = new long[(people.length + 63) >>> 6];
+            for (int slot = from; slot < to; slot++) {
+                bits[positions[slot] >>> 6] |= 1L << positions[slot];
+            }
+            List<Person> result = new ArrayList<>(to - from);
+            for (int word = 0; word < bits.length; word++) {
+                long mask = bits[word];
+                while (mask != 0) {
+                    result.add(people[(word << 6) + Long.numberOfTrailingZeros(mask)]);
+                    mask &= mask - 1;
+                }
+            }
+            return result;
+        }
+        List<Person> result = new ArrayList<>();
+        for (Person person : people) {
+            if (predicate.test(person)) {
+                result.add(person);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package api.index;
+
+import api.methods.Person;
+
+import java.util.function.Predicate;
+
+/**
+ * A Predicate on Person::getAge that an AgeIndex recognises and answers from the index instead of scanning.
+ *      index.count(AgeRange.greaterThan(30))      // instead of count(p -> p.getAge() > 30)
+ *      index.findFirst(AgeRange.adults())         // instead of findFirst(Person::isAdult)
+ * A lambda cannot be looked into, so only AgeRanges are recognised; any other Predicate is evaluated by a scan.
+ * and() of two AgeRanges is their intersection and is still recognised. Both bounds are inclusive.
+ */
+public final class AgeRange implements Predicate<Person> {
+    private static final AgeRange EMPTY = new AgeRange(1, 0);
+
+    private final int min;
+    private final int max;
+
+    private AgeRange(int min, int max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public static AgeRange between(int minInclusive, int maxInclusive) {
+        return minInclusive > maxInclusive ? EMPTY : new AgeRange(minInclusive, maxInclusive);
+    }
+
+    public static AgeRange exactly(int age) {
+        return new AgeRange(age, age);
+    }
+
+    public static AgeRange atLeast(int age) {
+        return new AgeRange(age, Integer.MAX_VALUE);
+    }
+
+    public static AgeRange greaterThan(int age) {
+        return age == Integer.MAX_VALUE ? EMPTY : atLeast(age + 1);
+    }
+
+    public static AgeRange atMost(int age) {
+        return new AgeRange(Integer.MIN_VALUE, age);
+    }
+
+    public static AgeRange lessThan(int age) {
+        return age == Integer.MIN_VALUE ? EMPTY : atMost(age - 1);
+    }
+
+    /**
+     * The same people as Person::isAdult.
+     */
+    public static AgeRange adults() {
+        return atLeast(18);
+    }
+
+    public static AgeRange minors() {
+        return lessThan(18);
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public boolean isEmpty() {
+        return min > max;
+    }
+
+    @Override
+    public boolean test(Person person) {
+        int age = person.getAge();
+        return age >= min && age <= max;
+    }
+
+    /**
+     * The intersection when other is an AgeRange, otherwise the usual combined Predicate.
+     */
+    @Override
+    public Predicate<Person> and(Predicate<? super Person> other) {
+        if (other instanceof AgeRange range) {
+            return between(Math.max(min, range.min), Math.min(max, range.max));
+        }
+        return Predicate.super.and(other);
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "AgeRange[]";
+        }
+        return "AgeRange[" + (min == Integer.MIN_VALUE ? "" : min) + ".." + (max == Integer.MAX_VALUE ? "" : max) + "]";
+    }
+}
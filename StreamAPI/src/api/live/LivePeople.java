@@ -0,0 +1,263 @@
+package api.live;
+
+import api.methods.AgeListener;
+import api.methods.Person;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A collection of people that keeps its age aggregates up to date, instead of recomputing them per query:
+ *      LivePeople people = new LivePeople();
+ *      people.add(new Person("John", 25));
+ *      people.getAverageAge();      // O(1), instead of people.stream().mapToInt(Person::getAge).average()
+ *      people.countByAge(25);       // O(1), instead of groupingBy(Person::getAge, counting()).get(25)
+ *      john.setAge(26);             // observed: the aggregates move John from 25 to 26
+ * 1. add() and remove() apply the person's age to the aggregates; an AgeListener registered on every member
+ *    applies each setAge() as a move from the old age to the new one.
+ * 2. The aggregates are a few longs and a count per age, guarded by a StampedLock. Writers hold the write lock
+ *    for a handful of additions. Readers use an optimistic read: no lock, no write to shared memory, and a
+ *    retry under the read lock only if a writer got in between. So a read is O(1) and always consistent,
+ *    e.g. getAverageAge() never divides a new sum by an old count.
+ * 3. Membership is a concurrent identity set (Person has no equals()), and every change of one person (add,
+ *    remove, setAge) happens under that person's lock, so concurrent writers cannot lose or double count one.
+ * Ages 0..MAX_INDEXED_AGE are counted in an array; other ages in a small map, read under the read lock.
+ */
+public final class LivePeople extends AbstractCollection<Person> {
+    static final int MAX_INDEXED_AGE = 255;
+
+    private final Set<Person> members = ConcurrentHashMap.newKeySet();
+    private final AgeListener listener = this::ageChanged;
+    private final StampedLock lock = new StampedLock();
+    private final long[] byAge = new long[MAX_INDEXED_AGE + 1];
+    private final Map<Integer, Long> otherAges = new TreeMap<>();
+    private long count;
+    private long adults;
+    private long ageSum;
+
+    public LivePeople() {
+    }
+
+    public LivePeople(Iterable<Person> people) {
+        for (Person person : people) {
+            add(person);
+        }
+    }
+
+    /**
+     * Adds the person, unless it is already a member. The same Person object may be in several LivePeople.
+     */
+    @Override
+    public boolean add(Person person) {
+        synchronized (person) {
+            if (!members.add(person)) {
+                return false;
+            }
+            person.addAgeListener(listener);
+            long stamp = lock.writeLock();
+            try {
+                apply(person.getAge(), 1);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Person person)) {
+            return false;
+        }
+        synchronized (person) {
+            if (!members.remove(person)) {
+                return false;
+            }
+            person.removeAgeListener(listener);
+            long stamp = lock.writeLock();
+            try {
+                apply(person.getAge(), -1);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Called by Person.setAge() with the person's lock held.
+     */
+    private void ageChanged(Person person, int oldAge, int newAge) {
+        long stamp = lock.writeLock();
+        try {
+            apply(oldAge, -1);
+            apply(newAge, 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void apply(int age, int delta) {
+        count += delta;
+        ageSum += (long) delta * age;
+        if (age >= 18) {
+            adults += delta;
+        }
+        if (age >= 0 && age <= MAX_INDEXED_AGE) {
+            byAge[age] += delta;
+        } else {
+            otherAges.merge(age, (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return members.contains(o);
+    }
+
+    /**
+     * Iterates a weakly consistent view: people added or removed meanwhile may or may not be seen.
+     * Iterator.remove() updates the aggregates.
+     */
+    @Override
+    public Iterator<Person> iterator() {
+        Iterator<Person> iterator = members.iterator();
+        return new Iterator<>() {
+            private Person current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Person next() {
+                current = iterator.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                if (current == null) {
+                    throw new IllegalStateException("next() was not called");
+                }
+                LivePeople.this.remove(current);
+                current = null;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(getCount(), Integer.MAX_VALUE);
+    }
+
+    public long getCount() {
+        long stamp = lock.tryOptimisticRead();
+        long result = count;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = count;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * People with isAdult(), i.e. age >= 18.
+     */
+    public long getAdultCount() {
+        long stamp = lock.tryOptimisticRead();
+        long result = adults;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = adults;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    public long getMinorCount() {
+        long stamp = lock.tryOptimisticRead();
+        long result = count - adults;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = count - adults;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Average age, or NaN when the collection is empty.
+     */
+    public double getAverageAge() {
+        long stamp = lock.tryOptimisticRead();
+        long sum = ageSum;
+        long n = count;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                sum = ageSum;
+                n = count;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return n == 0 ? Double.NaN : (double) sum / n;
+    }
+
+    /**
+     * Number of people of exactly this age.
+     */
+    public long countByAge(int age) {
+        if (age >= 0 && age <= MAX_INDEXED_AGE) {
+            long stamp = lock.tryOptimisticRead();
+            long result = byAge[age];
+            if (lock.validate(stamp)) {
+                return result;
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return age >= 0 && age <= MAX_INDEXED_AGE ? byAge[age] : otherAges.getOrDefault(age, 0L);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * A consistent copy of every non-zero count by age, in age order: the live version of
+     * people.stream().collect(groupingBy(Person::getAge, counting())).
+     */
+    public SortedMap<Integer, Long> countByAge() {
+        SortedMap<Integer, Long> result = new TreeMap<>();
+        long stamp = lock.readLock();
+        try {
+            for (int age = 0; age <= MAX_INDEXED_AGE; age++) {
+                if (byAge[age] != 0) {
+                    result.put(age, byAge[age]);
+                }
+            }
+            result.putAll(otherAges);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,443 @@
+package api.mapped;
+
+import api.methods.Employee;
+import api.methods.Person;
+import api.methods.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A CSV or fixed-width text file read through FileChannel.map() instead of a BufferedReader.
+ * Files.lines() decodes every byte into a String per line and then split() creates a String per field, before a
+ * single age or salary has been parsed. Here the file is mapped into memory and every line is handed to the
+ * pipeline as a Row that points into the mapped bytes, so
+ *      records.ints(1).average()                          // ages, never creating a String
+ *      records.people().filter(Person::isAdult).count()   // Person objects, one String per name
+ * read multi-GB files with no per-line garbage for primitive columns, served from the OS page cache.
+ * The streams are sequential; parallel() splits them on line boundaries (see LineSpliterator), so
+ *      records.people().parallel().collect(Collectors.groupingBy(Person::getAge, Collectors.counting()))
+ * scales with the number of cores, which Files.lines() and BufferedReader.lines() do not.
+ * Large files: one MappedByteBuffer is limited to 2 GB, so the file is mapped in 1 GB segments that overlap by
+ * MAX_RECORD_BYTES. A line that starts in a segment therefore ends in the same mapping, and no line is ever
+ * copied across a segment boundary. Lines longer than MAX_RECORD_BYTES are rejected.
+ * Mappings are released by the garbage collector once the MappedRecords and its streams are unreachable; the
+ * file itself is closed as soon as it is mapped. Reading a file that is being changed gives undefined results.
+ */
+public class MappedRecords {
+    public static final int MAX_RECORD_BYTES = 1 << 20;
+    static final int SEGMENT_SHIFT = 30;
+    static final long SEGMENT_BYTES = 1L << SEGMENT_SHIFT;
+
+    /**
+     * Ranges smaller than this are not split further: below it the fork/join overhead outweighs the parsing.
+     */
+    static final long MIN_SPLIT_BYTES = 1 << 16;
+    private static final int SAMPLE_BYTES = 1 << 16;
+
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final Path file;
+    private final RecordLayout layout;
+    private final long size;
+    private final MappedByteBuffer[] segments;
+    private final long firstRecord;
+    private final double averageLineBytes;
+
+    private MappedRecords(Path file, RecordLayout layout) throws IOException {
+        this.file = file;
+        this.layout = layout;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            segments = new MappedByteBuffer[(int) ((size + SEGMENT_BYTES - 1) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long from = (long) i << SEGMENT_SHIFT;
+                long length = Math.min(size - from, SEGMENT_BYTES + MAX_RECORD_BYTES);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+                // Little-endian, so that byte i of a long read by indexOfNewline() is its i-th lowest byte.
+                segments[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        firstRecord = layout.hasHeader() ? nextLineStart(0) : 0;
+        averageLineBytes = sampleLineBytes();
+    }
+
+    /**
+     * Average line length of the first SAMPLE_BYTES of records, for estimateSize().
+     */
+    private double sampleLineBytes() {
+        long sampleEnd = Math.min(size, firstRecord + SAMPLE_BYTES);
+        long lines = 0;
+        long position = firstRecord;
+        while (position < sampleEnd) {
+            position = nextLineStart(position);
+            lines++;
+        }
+        return lines == 0 ? 1 : Math.max(1, (double) (position - firstRecord) / lines);
+    }
+
+    public static MappedRecords open(Path file, RecordLayout layout) {
+        try {
+            return new MappedRecords(file, layout);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map " + file, e);
+        }
+    }
+
+    /**
+     * Maps a comma separated file with a header line.
+     */
+    public static MappedRecords open(Path file) {
+        return open(file, RecordLayout.csv());
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * File size in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Lines of the form name,age.
+     */
+    public Stream<Person> people() {
+        return stream(Row::toPerson);
+    }
+
+    /**
+     * Lines of the form name,salary.
+     */
+    public Stream<Employee> employees() {
+        return stream(Row::toEmployee);
+    }
+
+    /**
+     * Lines of the form name,category.
+     */
+    public Stream<Product> products() {
+        return stream(Row::toProduct);
+    }
+
+    /**
+     * One element per line, created by mapper from the line's Row. mapper must not keep the Row itself.
+     */
+    public <T> Stream<T> stream(Function<? super Row, ? extends T> mapper) {
+        return StreamSupport.stream(new ObjectSpliterator<T>(this, firstRecord, size, mapper), false);
+    }
+
+    /**
+     * The int column field, e.g. ints(1) for the ages of a name,age file.
+     */
+    public IntStream ints(int field) {
+        return mapToInt(row -> row.getInt(field));
+    }
+
+    public LongStream longs(int field) {
+        return mapToLong(row -> row.getLong(field));
+    }
+
+    /**
+     * The double column field, e.g. doubles(1) for the salaries of a name,salary file.
+     */
+    public DoubleStream doubles(int field) {
+        return mapToDouble(row -> row.getDouble(field));
+    }
+
+    public IntStream mapToInt(ToIntFunction<? super Row> mapper) {
+        return StreamSupport.intStream(new IntSpliterator(this, firstRecord, size, mapper), false);
+    }
+
+    public LongStream mapToLong(ToLongFunction<? super Row> mapper) {
+        return StreamSupport.longStream(new LongSpliterator(this, firstRecord, size, mapper), false);
+    }
+
+    public DoubleStream mapToDouble(ToDoubleFunction<? super Row> mapper) {
+        return StreamSupport.doubleStream(new DoubleSpliterator(this, firstRecord, size, mapper), false);
+    }
+
+    /**
+     * Calls action for every line, in file order, with the same reused Row.
+     */
+    public void forEach(Consumer<? super Row> action) {
+        Row row = new Row();
+        long position = firstRecord;
+        while ((position = next(position, size, row)) >= 0) {
+            action.accept(row);
+        }
+    }
+
+    /**
+     * Moves row to the first non-blank line that starts in [position, end).
+     * Returns the position just after that line, or -1 when there is none.
+     */
+    long next(long position, long end, Row row) {
+        while (position < end) {
+            int segment = (int) (position >>> SEGMENT_SHIFT);
+            long segmentStart = (long) segment << SEGMENT_SHIFT;
+            MappedByteBuffer buffer = segments[segment];
+            int start = (int) (position - segmentStart);
+            int newline = indexOfNewline(buffer, segmentStart, start);
+            long next = segmentStart + newline + 1;
+            int lineEnd = newline;
+            if (lineEnd > start && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd > start) {
+                row.set(buffer, start, lineEnd, position, layout);
+                return next;
+            }
+            position = next;
+        }
+        return -1;
+    }
+
+    /**
+     * Start of the line after the one containing position, or size when that line is the last one.
+     */
+    long nextLineStart(long position) {
+        if (position >= size) {
+            return size;
+        }
+        int segment = (int) (position >>> SEGMENT_SHIFT);
+        long segmentStart = (long) segment << SEGMENT_SHIFT;
+        return Math.min(size, segmentStart + indexOfNewline(segments[segment], segmentStart, (int) (position - segmentStart)) + 1);
+    }
+
+    /**
+     * Index of the first '\n' at or after from, or the buffer's limit when the line runs to the end of the file.
+     * Scans 8 bytes per step: a byte of word ^ NEWLINES is zero exactly where the input has '\n', and
+     * (x - 0x01..01) & ~x & 0x80..80 sets the high bit of the lowest zero byte of x (the classic "has zero byte"
+     * test; bits above the first match may be wrong, but only the lowest one is used).
+     */
+    private int indexOfNewline(MappedByteBuffer buffer, long segmentStart, int from) {
+        int limit = buffer.limit();
+        int i = from;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            long word = buffer.getLong(i) ^ NEWLINES;
+            long found = (word - LOW_BITS) & ~word & HIGH_BITS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        if (segmentStart + limit < size) {
+            throw new IllegalStateException("Line at byte " + (segmentStart + from) + " of " + file
+                    + " is longer than " + MAX_RECORD_BYTES + " bytes");
+        }
+        return limit;
+    }
+
+    /**
+     * The lines that start in [position, end), turned into elements by the subclasses.
+     * trySplit() cuts the byte range in half and moves the cut forward to the next line start, so both halves
+     * hold whole lines and every line belongs to exactly one half: the one its first byte is in. Splitting costs
+     * one newline search and no I/O, so parallel() splits as evenly as it would over an array.
+     * The number of lines in a range is not known without reading it, so SIZED is not reported; estimateSize()
+     * is the range length divided by the average line length of the start of the file.
+     */
+    private abstract static class LineSpliterator {
+        final MappedRecords records;
+        final Row row = new Row();
+        long position;
+        long end;
+
+        LineSpliterator(MappedRecords records, long position, long end) {
+            this.records = records;
+            this.position = position;
+            this.end = end;
+        }
+
+        /**
+         * Moves row to the next line; false when the range is exhausted.
+         */
+        final boolean advance() {
+            if (position < 0) {
+                return false;
+            }
+            position = records.next(position, end, row);
+            return position >= 0;
+        }
+
+        /**
+         * Moves position to the first line start after the middle of the range and returns it, or returns -1
+         * when the range is too small to split. The caller hands [old position, result) to a new spliterator.
+         */
+        final long cut() {
+            if (position < 0 || end - position < MIN_SPLIT_BYTES) {
+                return -1;
+            }
+            long middle = records.nextLineStart(position + (end - position) / 2 - 1);
+            if (middle <= position || middle >= end) {
+                return -1;
+            }
+            position = middle;
+            return middle;
+        }
+
+        public long estimateSize() {
+            return position < 0 ? 0 : (long) (Math.max(0, end - position) / records.averageLineBytes);
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        }
+    }
+
+    private static final class ObjectSpliterator<T> extends LineSpliterator implements Spliterator<T> {
+        private final Function<? super Row, ? extends T> mapper;
+
+        ObjectSpliterator(MappedRecords records, long position, long end, Function<? super Row, ? extends T> mapper) {
+            super(records, position, end);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!advance()) {
+                return false;
+            }
+            action.accept(mapper.apply(row));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (advance()) {
+                action.accept(mapper.apply(row));
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            long prefixStart = position;
+            long prefixEnd = cut();
+            return prefixEnd < 0 ? null : new ObjectSpliterator<>(records, prefixStart, prefixEnd, mapper);
+        }
+    }
+
+    private static final class IntSpliterator extends LineSpliterator implements Spliterator.OfInt {
+        private final ToIntFunction<? super Row> mapper;
+
+        IntSpliterator(MappedRecords records, long position, long end, ToIntFunction<? super Row> mapper) {
+            super(records, position, end);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (!advance()) {
+                return false;
+            }
+            action.accept(mapper.applyAsInt(row));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            while (advance()) {
+                action.accept(mapper.applyAsInt(row));
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long prefixStart = position;
+            long prefixEnd = cut();
+            return prefixEnd < 0 ? null : new IntSpliterator(records, prefixStart, prefixEnd, mapper);
+        }
+    }
+
+    private static final class LongSpliterator extends LineSpliterator implements Spliterator.OfLong {
+        private final ToLongFunction<? super Row> mapper;
+
+        LongSpliterator(MappedRecords records, long position, long end, ToLongFunction<? super Row> mapper) {
+            super(records, position, end);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (!advance()) {
+                return false;
+            }
+            action.accept(mapper.applyAsLong(row));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            while (advance()) {
+                action.accept(mapper.applyAsLong(row));
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            long prefixStart = position;
+            long prefixEnd = cut();
+            return prefixEnd < 0 ? null : new LongSpliterator(records, prefixStart, prefixEnd, mapper);
+        }
+    }
+
+    private static final class DoubleSpliterator extends LineSpliterator implements Spliterator.OfDouble {
+        private final ToDoubleFunction<? super Row> mapper;
+
+        DoubleSpliterator(MappedRecords records, long position, long end, ToDoubleFunction<? super Row> mapper) {
+            super(records, position, end);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (!advance()) {
+                return false;
+            }
+            action.accept(mapper.applyAsDouble(row));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            while (advance()) {
+                action.accept(mapper.applyAsDouble(row));
+            }
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            long prefixStart = position;
+            long prefixEnd = cut();
+            return prefixEnd < 0 ? null : new DoubleSpliterator(records, prefixStart, prefixEnd, mapper);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package api.mapped;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * How a line of a text file is cut into fields, without creating any String for the line or its fields.
+ * 1. csv(): fields are separated by a single-byte delimiter. Simple CSV only: fields are taken as they are, so
+ *    quoted fields with an embedded delimiter are not supported.
+ * 2. fixedWidth(): every field has a fixed width in bytes; spaces around a value are ignored.
+ * Either layout can skip a header line. Lines end with \n or \r\n, and blank lines are skipped.
+ */
+public final class RecordLayout {
+    private final byte delimiter;
+    private final int[] offsets;
+    private final int[] widths;
+    private final boolean header;
+
+    private RecordLayout(byte delimiter, int[] offsets, int[] widths, boolean header) {
+        this.delimiter = delimiter;
+        this.offsets = offsets;
+        this.widths = widths;
+        this.header = header;
+    }
+
+    /**
+     * Comma separated, with a header line.
+     */
+    public static RecordLayout csv() {
+        return csv(',', true);
+    }
+
+    /**
+     * @param delimiter an ASCII character, e.g. ',', ';' or '\t'
+     * @param header    whether the first line holds column names and is skipped
+     */
+    public static RecordLayout csv(char delimiter, boolean header) {
+        if (delimiter > 127 || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Delimiter must be an ASCII character other than CR/LF: " + delimiter);
+        }
+        return new RecordLayout((byte) delimiter, null, null, header);
+    }
+
+    /**
+     * Fixed-width fields, without a header line.
+     *
+     * @param widths width in bytes of every field, left to right
+     */
+    public static RecordLayout fixedWidth(int... widths) {
+        return fixedWidth(false, widths);
+    }
+
+    public static RecordLayout fixedWidth(boolean header, int... widths) {
+        if (widths.length == 0) {
+            throw new IllegalArgumentException("At least one field width is required");
+        }
+        int[] offsets = new int[widths.length];
+        int offset = 0;
+        for (int i = 0; i < widths.length; i++) {
+            if (widths[i] <= 0) {
+                throw new IllegalArgumentException("Field widths must be positive: " + Arrays.toString(widths));
+            }
+            offsets[i] = offset;
+            offset += widths[i];
+        }
+        return new RecordLayout((byte) 0, offsets, widths.clone(), header);
+    }
+
+    public boolean hasHeader() {
+        return header;
+    }
+
+    /**
+     * Finds the fields of the line [start, end) of buffer and stores their bounds in row.
+     */
+    void split(ByteBuffer buffer, int start, int end, Row row) {
+        if (widths == null) {
+            int fieldStart = start;
+            for (int i = start; i < end; i++) {
+                if (buffer.get(i) == delimiter) {
+                    row.addField(fieldStart, i);
+                    fieldStart = i + 1;
+                }
+            }
+            row.addField(fieldStart, end);
+            return;
+        }
+        for (int field = 0; field < widths.length; field++) {
+            int from = start + offsets[field];
+            if (from >= end) {
+                break;
+            }
+            int to = Math.min(from + widths[field], end);
+            while (from < to && buffer.get(from) == ' ') {
+                from++;
+            }
+            while (to > from && buffer.get(to - 1) == ' ') {
+                to--;
+            }
+            row.addField(from, to);
+        }
+    }
+}
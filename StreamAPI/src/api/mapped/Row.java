@@ -0,0 +1,221 @@
+package api.mapped;
+
+import api.methods.Employee;
+import api.methods.Person;
+import api.methods.Product;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One line of a MappedRecords file, read straight from the mapped bytes.
+ * Numbers are parsed from the bytes of their field, so getInt(), getLong() and getDouble() create no String;
+ * only getString() and the toPerson()/toEmployee()/toProduct() conversions allocate.
+ * A Row is a reusable cursor: the same instance moves on to the next line, so do not keep a reference to it
+ * outside the callback or mapper it was passed to. Fields are numbered from 0.
+ */
+public final class Row {
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private ByteBuffer buffer;
+    private int start;
+    private int end;
+    private long position;
+    private int[] bounds = new int[16];
+    private int fieldCount;
+    private byte[] scratch = new byte[64];
+
+    Row() {
+    }
+
+    void set(ByteBuffer buffer, int start, int end, long position, RecordLayout layout) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.position = position;
+        fieldCount = 0;
+        layout.split(buffer, start, end, this);
+    }
+
+    void addField(int from, int to) {
+        if (2 * fieldCount + 2 > bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        bounds[2 * fieldCount] = from;
+        bounds[2 * fieldCount + 1] = to;
+        fieldCount++;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Byte offset of this line in the file, useful in error messages.
+     */
+    public long position() {
+        return position;
+    }
+
+    public boolean isEmpty(int field) {
+        return from(field) == to(field);
+    }
+
+    /**
+     * Same result as Integer.parseInt(getString(field)), including the NumberFormatException.
+     */
+    public int getInt(int field) {
+        int from = from(field);
+        int to = to(field);
+        long value = parseLong(from, to);
+        if ((int) value != value) {
+            return Integer.parseInt(text(from, to));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Same result as Long.parseLong(getString(field)), including the NumberFormatException.
+     */
+    public long getLong(int field) {
+        return parseLong(from(field), to(field));
+    }
+
+    /**
+     * Same result as Double.parseDouble(getString(field)).
+     * Plain decimals such as 4500 or -12.75 with at most 15 digits are converted without a String: the digits are
+     * read into a long and divided by an exact power of ten, which IEEE division rounds correctly. Anything else
+     * (exponents, more digits, NaN, ...) is handed to Double.parseDouble().
+     */
+    public double getDouble(int field) {
+        int from = from(field);
+        int to = to(field);
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (point) {
+                    scale++;
+                }
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                return Double.parseDouble(text(from, to));
+            }
+        }
+        if (digits == 0 || digits > 15) {
+            return Double.parseDouble(text(from, to));
+        }
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    public String getString(int field) {
+        return text(from(field), to(field));
+    }
+
+    /**
+     * Compares the field with value byte by byte, without decoding the field.
+     */
+    public boolean fieldEquals(int field, byte[] value) {
+        int from = from(field);
+        int length = to(field) - from;
+        if (length != value.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(from + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fields: name, age.
+     */
+    public Person toPerson() {
+        return new Person(getString(0), getInt(1));
+    }
+
+    /**
+     * Fields: name, salary.
+     */
+    public Employee toEmployee() {
+        return new Employee(getString(0), getDouble(1));
+    }
+
+    /**
+     * Fields: name, category.
+     */
+    public Product toProduct() {
+        return new Product(getString(0), getString(1));
+    }
+
+    @Override
+    public String toString() {
+        return text(start, end);
+    }
+
+    private long parseLong(int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        // Empty fields and anything long enough to overflow go to the JDK, which parses or rejects them.
+        if (i == to || to - i > 18) {
+            return Long.parseLong(text(from, to));
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(text(from, to));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private String text(int from, int to) {
+        int length = to - from;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, 2 * scratch.length)];
+        }
+        buffer.get(from, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int from(int field) {
+        checkField(field);
+        return bounds[2 * field];
+    }
+
+    private int to(int field) {
+        return bounds[2 * field + 1];
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException(
+                    "Field " + field + " out of bounds for the " + fieldCount + " fields of the line at byte " + position);
+        }
+    }
+}
@@ -1,9 +1,46 @@
 package api.methods;
 
+import api.collectors.ByteJoiner;
+import api.collectors.ChunkedBuffer;
+import api.collectors.IntChunkedBuffer;
+import api.collectors.TopK;
+import api.columnar.EmployeeTable;
+import api.columnar.PersonTable;
+import api.columnar.ProductTable;
+import api.distinct.DistinctFilter;
+import api.distinct.Fingerprints;
+import api.execution.ExecutionPolicy;
+import api.execution.ExecutionResult;
+import api.execution.Workload;
+import api.external.ExternalGrouping;
+import api.external.ExternalSorter;
+import api.external.RecordCodecs;
+import api.flow.BatchingSubscriber;
+import api.flow.FlowOperators;
+import api.flow.IterablePublisher;
+import api.grouping.IntGrouping;
+import api.grouping.IntLongHashMap;
+import api.grouping.IntObjectHashMap;
+import api.index.AgeIndex;
+import api.index.AgeRange;
+import api.live.LivePeople;
+import api.mapped.MappedRecords;
+import api.metrics.Pipeline;
+import api.metrics.PipelineMetrics;
+import api.sink.ResultSink;
+import api.statistics.DoubleStatistics;
+import api.views.FlattenedList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.Flow;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class API {
     /**
@@ -72,6 +109,13 @@ public class API {
                 LocalDate.of(2021, 12, 31)
         );
         dates.stream().min(LocalDate::compareTo).ifPresent(System.out::println);
+
+        // Find the k lowest-paid employees or the k earliest dates without sorted().limit(k):
+        // TopK keeps a heap of k elements, so it takes O(n log k) time and O(k) memory.
+        List<Employee> lowestPaid = employees.stream().collect(TopK.smallestBy(2, Employee::getSalary));
+        lowestPaid.forEach(e -> System.out.println(e.getName() + " : " + e.getSalary())); // Output: Mary : 4500.0, John : 5000.0
+        System.out.println(dates.stream().collect(TopK.smallest(2, Comparator.<LocalDate>naturalOrder()))); // Output: [2021-12-31, 2022-01-01]
+        System.out.println(Arrays.toString(TopK.largest(numbers.stream().mapToInt(Integer::intValue), 3))); // Output: [65, 54, 34]
     }
 
 
@@ -99,6 +143,12 @@ public class API {
         );
 
         products.stream().distinct().toList().forEach(System.out::println);
+
+        // distinct() keeps every distinct element in a HashSet. DistinctFilter keeps only a 64-bit fingerprint of
+        // the key that equals() uses, and can spill to disk or use a Bloom filter for very large streams.
+        try (DistinctFilter<Product> firstSeen = DistinctFilter.exact(Fingerprints.by(Product::getName))) {
+            products.stream().filter(firstSeen).toList().forEach(System.out::println);
+        }
     }
 
 
@@ -258,6 +308,219 @@ public class API {
         System.out.println(sum2);
     }
 
+    /**
+     * EmployeeTable: the same employees stored as columns (a name dictionary plus a double[] of salaries) instead of
+     * a List of objects with boxed Double salaries.
+     * sum(), min() and bottomN() loop over the primitive array directly, and salaries() gives a DoubleStream
+     * when a stream pipeline is still needed.
+     */
+    public void employeeTable(){
+        List<Employee> employees = Arrays.asList(
+                new Employee("John", 5000D),
+                new Employee("Mary", 4500D),
+                new Employee("Tom", 6000D)
+        );
+        EmployeeTable table = EmployeeTable.from(employees);
+
+        System.out.println(table.sum());                                     // Output: 15500.0
+        System.out.println("Lowest salary: " + table.min().getAsDouble());   // Output: Lowest salary: 4500.0
+        for (int row : table.bottomN(2)) {
+            System.out.println(table.getName(row) + " : " + table.getSalary(row)); // Output: Mary : 4500.0, John : 5000.0
+        }
+        System.out.println(table.salaries().filter(salary -> salary > 4800).count()); // Output: 2
+    }
+
+    /**
+     * ProductTable / PersonTable: categories and names stored as int codes into a dictionary that holds every
+     * distinct string once. Counting and distinct need one step per distinct value, and an equality filter
+     * compares ints instead of calling String.equals() on every row.
+     */
+    public void encodedColumns(){
+        ProductTable products = ProductTable.from(Arrays.asList(
+                new Product("Laptop", "Electronics"),
+                new Product("Shirt", "Clothing"),
+                new Product("Phone", "Electronics"),
+                new Product("Novel", "Books")
+        ));
+
+        System.out.println(products.countByCategory());        // Output: {Electronics=2, Clothing=1, Books=1}
+        System.out.println(products.distinctCategories());     // Output: [Electronics, Clothing, Books]
+        System.out.println(products.withCategory("Electronics").map(Product::getName).toList()); // Output: [Laptop, Phone]
+
+        PersonTable people = PersonTable.from(Arrays.asList(
+                new Person("John", 25),
+                new Person("Mary", 35),
+                new Person("John", 17)
+        ));
+        System.out.println(people.countNamed("John"));         // Output: 2
+        System.out.println(people.groupByName().keySet());     // Output: [John, Mary]
+    }
+
+    /**
+     * MappedRecords: the same pipelines over a CSV file instead of an in-memory list.
+     * The file is memory-mapped and every line is parsed straight from the mapped bytes, so ints() and doubles()
+     * read a column without creating a String per line, and people() creates only the Person objects.
+     */
+    public void mappedRecords(){
+        try {
+            Path file = Files.createTempFile("people-", ".csv");
+            file.toFile().deleteOnExit();
+            Files.writeString(file, "name,age\nJohn,25\nMary,35\nTom,17\n");
+            MappedRecords records = MappedRecords.open(file);
+
+            System.out.println(records.people().filter(Person::isAdult).count());    // Output: 2
+            System.out.println(records.ints(1).average().getAsDouble());            // Output: 25.666666666666668
+            System.out.println(records.people()
+                    .collect(Collectors.groupingBy(Person::isAdult, Collectors.counting()))); // Output: {false=1, true=2}
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * ResultSink: a buffered replacement for forEach(System.out::println).
+     * println() locks System.out and flushes for every element; a sink collects lines in a buffer per thread and
+     * writes a whole batch at once. forEach(sink) keeps no order under parallel(), acceptAll() keeps the
+     * encounter order. ResultSink.file(path) writes to a file and ResultSink.noop() discards (for benchmarks).
+     */
+    public void resultSink(){
+        List<String> words = Arrays.asList("apple", "banana", "orange", "pear");
+        try (ResultSink<Object> out = ResultSink.console()) {
+            words.stream().map(String::toUpperCase).forEach(out);         // Output: APPLE BANANA ORANGE PEAR (one per line)
+            out.acceptAll(words.parallelStream().map(String::length));    // Output: 5 6 6 4 (one per line, in order)
+        }
+    }
+
+    /**
+     * Pipeline: per-stage metrics for a stream, to find the stage that costs the time.
+     * Every stage function is wrapped with a name; the snapshot shows elements in and out, the selectivity of
+     * each filter and the time spent in each stage. Pipeline.of(name) only records with -Dapi.pipeline.metrics=true
+     * and otherwise returns the functions unchanged, so the wrappers can stay in production code.
+     */
+    public void instrumentedPipeline(){
+        List<Person> people = Arrays.asList(new Person("John", 25), new Person("Mary", 35), new Person("Tom", 17));
+        Pipeline pipeline = Pipeline.instrumented("adultsByAge");
+        Map<Integer, Long> byAge = people.stream()
+                .filter(pipeline.filter("adult", Person::isAdult))
+                .map(pipeline.map("age", Person::getAge))
+                .collect(pipeline.collect("count", Collectors.groupingBy(age -> age, Collectors.counting())));
+        System.out.println(byAge);                                                      // Output: {35=1, 25=1}
+        PipelineMetrics metrics = pipeline.commit();   // also a JFR event per stage when a recording is running
+        System.out.println(metrics.getStage("adult").getSelectivity());                 // Output: 0.6666666666666666
+        System.out.println(metrics.getStage("count").getElementsIn());                  // Output: 2
+    }
+
+    /**
+     * ExecutionPolicy: chooses sequential, parallel (on its own bounded ForkJoinPool) or virtual threads from
+     * the size of the source and the cost per element, instead of hard-coding stream() or parallelStream().
+     * Small inputs stay sequential, because splitting and merging would cost more than the work itself.
+     * Every result carries the decision, so it can be logged or checked.
+     */
+    public void adaptiveExecution(){
+        List<Person> people = Arrays.asList(new Person("John", 25), new Person("Mary", 35), new Person("Tom", 17));
+        try (ExecutionPolicy policy = ExecutionPolicy.create(4)) {
+            ExecutionResult<Long> adults = policy.execute(people, Workload.cpu(),
+                    stream -> stream.filter(Person::isAdult).count());
+            System.out.println(adults.getResult());                 // Output: 2
+            System.out.println(adults.getDecision().getMode());     // Output: SEQUENTIAL
+
+            // Each lookup waits ~10ms (e.g. a remote call): runs on virtual threads, all three at once.
+            ExecutionResult<List<String>> names = policy.map(people, Workload.blocking(10_000_000), Person::getName);
+            System.out.println(names.getResult());                  // Output: [John, Mary, Tom]
+            System.out.println(names.getDecision().getMode());      // Output: VIRTUAL_THREADS
+        }
+    }
+
+    /**
+     * LivePeople: count-by-age, average age and adult/minor counts kept up to date on every add(), remove() and
+     * setAge(), so a dashboard that asks constantly reads them in O(1) instead of streaming over everybody.
+     * It is thread-safe: concurrent writers and readers always see consistent numbers.
+     */
+    public void livePeople(){
+        Person tom = new Person("Tom", 17);
+        LivePeople people = new LivePeople(Arrays.asList(new Person("John", 25), new Person("Mary", 35), tom));
+        System.out.println(people.getAverageAge());     // Output: 25.666666666666668
+        System.out.println(people.getAdultCount());     // Output: 2
+
+        tom.setAge(18);                                 // observed, no need to tell the collection
+        System.out.println(people.getAdultCount());     // Output: 3
+        System.out.println(people.countByAge());        // Output: {18=1, 25=1, 35=1}
+
+        people.add(new Person("Lisa", 25));
+        System.out.println(people.countByAge(25));      // Output: 2
+    }
+
+    /**
+     * AgeIndex: answers filter/find/count by an age range without scanning every person.
+     * The people are sorted by age once, with the start of every age recorded, so counting a range is two array
+     * reads. Ranges are written as AgeRange predicates, the only ones the index can recognise; any other
+     * predicate still works, by a scan.
+     */
+    public void ageIndex(){
+        List<Person> people = Arrays.asList(
+                new Person("John", 25), new Person("Mary", 35), new Person("Tom", 17), new Person("Lisa", 40));
+        AgeIndex index = AgeIndex.of(people);
+        System.out.println(index.count(AgeRange.greaterThan(30)));               // Output: 2
+        System.out.println(index.findFirst(AgeRange.greaterThan(30)).get().getName()); // Output: Mary
+        System.out.println(index.filter(AgeRange.adults()).size());              // Output: 3
+        System.out.println(index.inRange(AgeRange.between(20, 39)));
+        // Output: [Person{name='John', age=25}, Person{name='Mary', age=35}]
+        System.out.println(index.count(person -> person.getName().startsWith("T")));  // Output: 1 (scan)
+    }
+
+    /**
+     * FlowOperators: filter, map, distinct, grouped counting, running statistics and reduce as
+     * java.util.concurrent.Flow processors, for events that keep arriving instead of a finite list.
+     * Each processor buffers a bounded number of items and requests more only as its subscriber consumes them
+     * (backpressure), so an endless input runs in fixed memory. IterablePublisher feeds a list in, on demand.
+     */
+    public void flowOperators(){
+        List<Person> people = Arrays.asList(
+                new Person("John", 25), new Person("Mary", 35), new Person("Tom", 17), new Person("Lisa", 25));
+        FlowOperators operators = FlowOperators.create();
+
+        Flow.Processor<Person, Person> adults = operators.filter(Person::isAdult);
+        Flow.Processor<Person, Map.Entry<Integer, Long>> countByAge = operators.countingBy(Person::getAge);
+        new IterablePublisher<>(people).subscribe(adults);
+        adults.subscribe(countByAge);
+        BatchingSubscriber<Map.Entry<Integer, Long>> printer = new BatchingSubscriber<>(System.out::println);
+        countByAge.subscribe(printer);      // Output: 25=1 35=1 25=2 (one per line, a running count per person)
+        printer.completion().join();
+
+        Flow.Processor<Person, Integer> ages = operators.map(Person::getAge);
+        Flow.Processor<Integer, Integer> total = operators.reduce(0, Integer::sum);
+        new IterablePublisher<>(people).subscribe(ages);
+        ages.subscribe(total);
+        total.subscribe(new BatchingSubscriber<>(System.out::println));      // Output: 102
+    }
+
+    /**
+     * ExternalGrouping and ExternalSorter: groupingBy() and sorted() for inputs larger than the heap.
+     * Elements are sorted in memory up to a budget, written to temp files as sorted runs, and merged back
+     * lazily; groups are emitted one at a time in key order and reduced by the downstream collector as they
+     * stream past, so no Map of all groups is ever built. Close the stream to delete the temp files.
+     */
+    public void externalGroupBy(){
+        List<Product> products = Arrays.asList(
+                new Product("iPhone", "Electronics"),
+                new Product("MacBook", "Electronics"),
+                new Product("Shirt", "Clothing"),
+                new Product("Jeans", "Clothing"),
+                new Product("Book", "Books")
+        );
+        Path directory = Path.of(System.getProperty("java.io.tmpdir"));
+        try (Stream<Map.Entry<String, Long>> counts = ExternalGrouping.groupingBy(products.stream(),
+                Product::getCategory, Collectors.counting(), RecordCodecs.products(), 64L << 20, directory)) {
+            counts.forEach(System.out::println);    // Output: Books=1 Clothing=2 Electronics=2 (one per line)
+        }
+
+        try (ExternalSorter<Product> sorter = new ExternalSorter<>(RecordCodecs.products(),
+                Comparator.comparing(Product::getName), 64L << 20, directory)) {
+            sorter.addAll(products);
+            System.out.println(sorter.sorted().map(Product::getName).toList()); // Output: [Book, Jeans, MacBook, Shirt, iPhone]
+        }
+    }
+
     /**
      * statistics(): method is used to calculate statistical summary data for numeric elements in a stream.
      * It returns an instance of the DoubleSummaryStatistics class,
@@ -275,6 +538,14 @@ public class API {
         System.out.println("Min: " + stats.getMin());           // Output: Min: 1.0
         System.out.println("Max: " + stats.getMax());           // Output: Max: 5.0
         System.out.println("stats: " + stats);     // DoubleSummaryStatistics{count=5, sum=15.000000, min=1.000000, average=3.000000, max=5.000000}
+
+        // DoubleStatistics: same single pass, plus standard deviation and approximate percentiles.
+        // It can be combined, so it gives the same answer under parallel().
+        DoubleStatistics extended = numbers.parallelStream()
+                .mapToDouble(Integer::doubleValue)
+                .collect(DoubleStatistics::new, DoubleStatistics::accept, DoubleStatistics::combine);
+        System.out.println("Std dev: " + extended.getStandardDeviation()); // Output: Std dev: 1.4142135623730951
+        System.out.println("p50: " + extended.getMedian());                // Output: p50: ~3.0 (within 1%)
     }
 
     /**
@@ -330,6 +601,15 @@ public class API {
         List<String> names = Arrays.asList("Emma", "Liam", "Hector", "Bella", "Alex", "Alex", "Emma");
         names.stream().collect(Collectors.groupingBy(String::valueOf, Collectors.counting()))
                 .forEach((name, count)->{System.out.println(name+" : "+count);});
+
+        // Example 5: group and count by an int key without boxing.
+        // IntGrouping keeps int keys and long counts in primitive hash maps instead of Map<Integer, Long>,
+        // and under parallel() every worker counts into its own map, merged at the end.
+        IntLongHashMap ageCounts = people.parallelStream().collect(IntGrouping.counting(Person::getAge));
+        System.out.println(ageCounts); // Output: {25=2, 35=1, 40=1}
+
+        IntObjectHashMap<List<Person>> peopleByAge2 = IntGrouping.groupParallel(people, Person::getAge);
+        System.out.println(peopleByAge2.get(25)); // Output: [Person{name='John', age=25}, Person{name='Lisa', age=25}]
     }
 
     /**
@@ -358,6 +638,10 @@ public class API {
         line = strings.stream().reduce((str1, str2)-> str1 + " "+str2);
         System.out.println(line.get());
 
+        // reduce() with String::concat copies everything joined so far on every step (quadratic).
+        // ByteJoiner encodes every string once and links its buffers when parallel() parts are combined.
+        System.out.println(strings.parallelStream().collect(ByteJoiner.joiningToString(" "))); // Output: Hello World !
+
 
         // Example 3: Finding the longest word in a list:
         List<String> words = Arrays.asList("Java", "is", "fun", "and", "powerful");
@@ -379,6 +663,12 @@ public class API {
         );
         List<String> flatList = list.stream().flatMap(List::stream).collect(Collectors.toList());
         flatList.stream().forEach(System.out::println);
+
+        // FlattenedList: the same elements as a read-only view, without copying them into a new list.
+        // get() is O(1), and its stream knows its exact size and splits between the inner lists under parallel().
+        List<String> flatView = FlattenedList.of(list);
+        System.out.println(flatView.get(3));                                         // Output: John
+        System.out.println(flatView.parallelStream().filter(name -> name.startsWith("A")).count()); // Output: 4
     }
 
     public void concatStringByComma(){
@@ -388,6 +678,12 @@ public class API {
 
         String join = names.stream().collect(Collectors.joining(","));
         System.out.println(join);
+
+        // ByteJoiner: same result as UTF-8 bytes, without building a String first; writeTo() streams the buffers
+        // to a file or socket. Here with a size limit of 30 bytes: only whole names that fit are kept.
+        ByteJoiner joiner = names.stream().collect(ByteJoiner.joining(",", "[", "]", 30));
+        joiner.writeTo(System.out);                        // Output: [anna,john,marcos,helena]
+        System.out.println(" skipped " + joiner.getSkipped()); // Output:  skipped 1
     }
 
     /**
@@ -406,5 +702,16 @@ public class API {
                 ArrayList::add,
                 ArrayList::addAll
         ).forEach(System.out::println);
+
+        // ChunkedBuffer: the same three steps, but merge() links the chunks of the two buffers instead of copying
+        // the right one into the left one, so parallel() parts are combined in O(1).
+        List<String> longWords = emails.parallelStream()
+                .filter(email -> email.length() > 4)
+                .collect(ChunkedBuffer<String>::new, ChunkedBuffer::add, ChunkedBuffer::merge)
+                .asList();
+        System.out.println(longWords);                                        // Output: [hello, downtime, London]
+        System.out.println(emails.parallelStream().collect(ChunkedBuffer.toList()).get(3)); // Output: London
+        int[] lengths = emails.parallelStream().collect(IntChunkedBuffer.collecting(String::length));
+        System.out.println(Arrays.toString(lengths));                         // Output: [4, 5, 8, 6]
     }
 }
@@ -0,0 +1,9 @@
+package api.methods;
+
+/**
+ * Notified after Person.setAge() changed the age of a person, while the person's lock is held.
+ */
+@FunctionalInterface
+public interface AgeListener {
+    void ageChanged(Person person, int oldAge, int newAge);
+}
@@ -1,8 +1,11 @@
 package api.methods;
 
+import java.util.Arrays;
+
 public class Person {
     private String name;
     private int age;
+    private AgeListener[] ageListeners;
 
     public Person(String name, int age) {
         this.name = name;
@@ -21,11 +24,53 @@ public class Person {
         return age;
     }
 
-    public void setAge(int age) {
+    /**
+     * Sets the age and notifies the AgeListeners if it changed. setAge() and the listener methods synchronize
+     * on the person, so a listener sees every change exactly once, in order (see api.live.LivePeople).
+     */
+    public synchronized void setAge(int age) {
+        int oldAge = this.age;
         this.age = age;
+        if (ageListeners != null && oldAge != age) {
+            for (AgeListener listener : ageListeners) {
+                listener.ageChanged(this, oldAge, age);
+            }
+        }
     }
     // constructor, getters, setters...
 
+    /**
+     * Listeners are kept in a copy-on-write array that stays null until the first one is added, so people that
+     * nobody observes pay one field and nothing else.
+     */
+    public synchronized void addAgeListener(AgeListener listener) {
+        if (ageListeners == null) {
+            ageListeners = new AgeListener[]{listener};
+        } else {
+            ageListeners = Arrays.copyOf(ageListeners, ageListeners.length + 1);
+            ageListeners[ageListeners.length - 1] = listener;
+        }
+    }
+
+    public synchronized void removeAgeListener(AgeListener listener) {
+        if (ageListeners == null) {
+            return;
+        }
+        for (int i = 0; i < ageListeners.length; i++) {
+            if (ageListeners[i] == listener) {
+                if (ageListeners.length == 1) {
+                    ageListeners = null;
+                } else {
+                    AgeListener[] next = new AgeListener[ageListeners.length - 1];
+                    System.arraycopy(ageListeners, 0, next, 0, i);
+                    System.arraycopy(ageListeners, i + 1, next, i, ageListeners.length - i - 1);
+                    ageListeners = next;
+                }
+                return;
+            }
+        }
+    }
+
     public boolean isAdult() {
         return age >= 18;
     }
@@ -49,6 +49,7 @@ public class Product {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        // The same value as Objects.hash(name), without allocating its varargs array on every call.
+        return 31 + Objects.hashCode(name);
     }
 }
@@ -0,0 +1,66 @@
+package api.metrics;
+
+import java.util.List;
+
+/**
+ * An immutable snapshot of every stage of an instrumented Pipeline, in the order the stages were declared.
+ */
+public final class PipelineMetrics {
+    private final String pipeline;
+    private final List<StageMetrics> stages;
+
+    PipelineMetrics(String pipeline, List<StageMetrics> stages) {
+        this.pipeline = pipeline;
+        this.stages = List.copyOf(stages);
+    }
+
+    public String getPipeline() {
+        return pipeline;
+    }
+
+    public List<StageMetrics> getStages() {
+        return stages;
+    }
+
+    /**
+     * The stage with the given name, e.g. to assert on its selectivity.
+     */
+    public StageMetrics getStage(String name) {
+        for (StageMetrics stage : stages) {
+            if (stage.getName().equals(name)) {
+                return stage;
+            }
+        }
+        throw new IllegalArgumentException("No stage named " + name + " in pipeline " + pipeline);
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (StageMetrics stage : stages) {
+            total += stage.getNanos();
+        }
+        return total;
+    }
+
+    /**
+     * The stage that spent the most time, or null when there are no stages.
+     */
+    public StageMetrics getSlowestStage() {
+        StageMetrics slowest = null;
+        for (StageMetrics stage : stages) {
+            if (slowest == null || stage.getNanos() > slowest.getNanos()) {
+                slowest = stage;
+            }
+        }
+        return slowest;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("Pipeline ").append(pipeline).append(':');
+        for (StageMetrics stage : stages) {
+            result.append(System.lineSeparator()).append("  ").append(stage);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package api.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event with the totals of one pipeline stage, committed by Pipeline.commit().
+ * View it in JDK Mission Control, or with: jfr print --events api.PipelineStage recording.jfr
+ */
+@Name("api.PipelineStage")
+@Label("Pipeline Stage")
+@Category({"Stream API", "Pipeline"})
+@Description("Elements, selectivity, time and allocation of one stage of an instrumented stream pipeline")
+@StackTrace(false)
+final class PipelineStageEvent extends Event {
+    @Label("Pipeline")
+    String pipeline;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Kind")
+    String kind;
+
+    @Label("Elements In")
+    long elementsIn;
+
+    @Label("Elements Out")
+    long elementsOut;
+
+    @Label("Selectivity")
+    double selectivity;
+
+    @Label("Stage Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long allocatedBytes;
+}
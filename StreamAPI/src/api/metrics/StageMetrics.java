@@ -0,0 +1,76 @@
+package api.metrics;
+
+/**
+ * An immutable snapshot of one stage of an instrumented Pipeline.
+ */
+public final class StageMetrics {
+    private final String name;
+    private final Pipeline.Kind kind;
+    private final long elementsIn;
+    private final long elementsOut;
+    private final long nanos;
+    private final long allocatedBytes;
+
+    StageMetrics(String name, Pipeline.Kind kind, long elementsIn, long elementsOut, long nanos, long allocatedBytes) {
+        this.name = name;
+        this.kind = kind;
+        this.elementsIn = elementsIn;
+        this.elementsOut = elementsOut;
+        this.nanos = nanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Pipeline.Kind getKind() {
+        return kind;
+    }
+
+    public long getElementsIn() {
+        return elementsIn;
+    }
+
+    /**
+     * Elements passed on: those a filter kept, the elements a flatMap produced, the results of a map.
+     * For a collect stage, the number of results it returned (0 until it finished).
+     */
+    public long getElementsOut() {
+        return elementsOut;
+    }
+
+    /**
+     * elementsOut / elementsIn, e.g. the fraction of elements a filter keeps. NaN when no element came in.
+     */
+    public double getSelectivity() {
+        return elementsIn == 0 ? Double.NaN : (double) elementsOut / elementsIn;
+    }
+
+    /**
+     * Time spent inside this stage's own function, summed over all threads; downstream stages are not included.
+     * Extrapolated from the timed sample of elements unless the pipeline times every element.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getNanosPerElement() {
+        return elementsIn == 0 ? Double.NaN : (double) nanos / elementsIn;
+    }
+
+    /**
+     * Bytes allocated inside this stage's function, or -1 when allocation tracking was off.
+     * Extrapolated from the sample like getNanos().
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s %-8s in=%d out=%d selectivity=%.3f time=%.3fms (%.1fns/element) allocated=%s",
+                name, kind, elementsIn, elementsOut, getSelectivity(), nanos / 1e6, getNanosPerElement(),
+                allocatedBytes < 0 ? "n/a" : allocatedBytes + "B");
+    }
+}
@@ -0,0 +1,38 @@
+package api.sink;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Discards every element and only counts them, so a benchmark can keep its terminal forEach() without
+ * measuring output. LongAdder keeps the counting contention-free under parallel().
+ */
+public final class NoopSink<T> implements ResultSink<T> {
+    private final LongAdder count = new LongAdder();
+
+    NoopSink() {
+    }
+
+    @Override
+    public void accept(T element) {
+        count.increment();
+    }
+
+    @Override
+    public void acceptAll(Stream<? extends T> elements) {
+        // forEach() rather than count(): count() may skip the map() and peek() stages of a SIZED pipeline.
+        elements.forEach(element -> count.increment());
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,74 @@
+package api.sink;
+
+import java.io.Closeable;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Where the results of a pipeline go, as a replacement for forEach(System.out::println).
+ * println() takes the PrintStream lock and flushes for every single element, so printing a large result costs
+ * more than computing it, and under parallel() all workers queue up on that one lock. A ResultSink batches:
+ * 1. accept() appends to a buffer owned by the calling thread and writes the buffer out in one call when it is
+ *    full, so threads only meet once per batch. Lines of one thread stay in order; lines of different threads
+ *    interleave batch by batch, as with forEach().
+ * 2. acceptAll() keeps the encounter order of the stream: every worker formats its part into its own buffers,
+ *    the parts are linked together in order (no copying, see ByteJoiner) and written once at the end.
+ * Implementations: console() and file() write one line per element (String.valueOf() plus '\n'); noop() only
+ * counts, for benchmarks that should measure the pipeline and not the output.
+ *      try (ResultSink<Person> out = ResultSink.file(Path.of("adults.txt"))) {
+ *          people.parallelStream().filter(Person::isAdult).forEach(out);   // batched, unordered
+ *      }
+ * Call flush() or close() after the stream has finished; they are not meant to run while threads still call
+ * accept().
+ */
+public interface ResultSink<T> extends Consumer<T>, Closeable {
+    /**
+     * Buffers one element; safe to call from many threads at once.
+     */
+    @Override
+    void accept(T element);
+
+    /**
+     * Writes every element of elements, in encounter order even when the stream is parallel.
+     */
+    void acceptAll(Stream<? extends T> elements);
+
+    /**
+     * Writes all buffered elements.
+     */
+    void flush();
+
+    /**
+     * Flushes, and closes the destination if the sink opened it.
+     */
+    @Override
+    void close();
+
+    /**
+     * A sink to System.out; close() flushes but leaves System.out open.
+     */
+    static <T> ResultSink<T> console() {
+        return to(System.out);
+    }
+
+    /**
+     * A sink to out; close() flushes but leaves out open.
+     */
+    static <T> ResultSink<T> to(OutputStream out) {
+        return new TextSink<>(Channels.newChannel(out), out, false);
+    }
+
+    /**
+     * A sink to a new or truncated file, written through a FileChannel; close() closes the file.
+     */
+    static <T> ResultSink<T> file(Path file) {
+        return TextSink.open(file);
+    }
+
+    static <T> NoopSink<T> noop() {
+        return new NoopSink<>();
+    }
+}
@@ -0,0 +1,186 @@
+package api.sink;
+
+import api.collectors.ByteJoiner;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * A ResultSink that writes one UTF-8 line per element to a WritableByteChannel.
+ * Every thread that calls accept() gets its own BUFFER_BYTES buffer (a ThreadLocal). A full buffer is written
+ * with a single channel write under the channel's lock, so that lock is taken once per batch of lines instead of
+ * once per element. The buffers are remembered so that flush() and close() can drain them.
+ * With many short-lived threads (e.g. virtual threads) every thread still costs one buffer until close(). close()
+ * releases the buffer memory of every thread and drops the ThreadLocal, so pool threads that outlive the sink
+ * (e.g. the common pool's) do not keep 64 KB each alive.
+ */
+public final class TextSink<T> implements ResultSink<T> {
+    static final int BUFFER_BYTES = 1 << 16;
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final WritableByteChannel channel;
+    private final Flushable flushable;
+    private final boolean ownsChannel;
+    private final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+    private volatile ThreadLocal<Buffer> local = ThreadLocal.withInitial(this::newBuffer);
+    private volatile boolean closed;
+
+    /**
+     * @param flushable   flushed after every flush(), e.g. the OutputStream behind channel; may be null
+     * @param ownsChannel whether close() closes channel
+     */
+    public TextSink(WritableByteChannel channel, Flushable flushable, boolean ownsChannel) {
+        this.channel = channel;
+        this.flushable = flushable;
+        this.ownsChannel = ownsChannel;
+    }
+
+    static <T> TextSink<T> open(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new TextSink<>(channel, null, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open " + file, e);
+        }
+    }
+
+    private Buffer newBuffer() {
+        Buffer buffer = new Buffer();
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    @Override
+    public void accept(T element) {
+        ThreadLocal<Buffer> threadBuffers = local;
+        if (closed || threadBuffers == null) {
+            throw new IllegalStateException("Sink is closed");
+        }
+        threadBuffers.get().appendLine(String.valueOf(element).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void acceptAll(Stream<? extends T> elements) {
+        if (closed) {
+            throw new IllegalStateException("Sink is closed");
+        }
+        ByteJoiner lines = elements.map(String::valueOf).collect(ByteJoiner.joining("\n"));
+        // Lines accepted earlier go first.
+        for (Buffer buffer : buffers) {
+            buffer.drain();
+        }
+        synchronized (channel) {
+            lines.writeTo(channel);
+            if (lines.getCount() > 0) {
+                write(ByteBuffer.wrap(NEWLINE));
+            }
+        }
+        flushTarget();
+    }
+
+    @Override
+    public void flush() {
+        for (Buffer buffer : buffers) {
+            buffer.drain();
+        }
+        flushTarget();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flush();
+        for (Buffer buffer : buffers) {
+            buffer.release();
+        }
+        buffers.clear();
+        local = null;
+        if (ownsChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not close sink", e);
+            }
+        }
+    }
+
+    private void flushTarget() {
+        if (flushable != null) {
+            try {
+                flushable.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not flush sink", e);
+            }
+        }
+    }
+
+    private void write(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to sink", e);
+        }
+    }
+
+    /**
+     * One thread's pending lines.
+     */
+    private final class Buffer {
+        private ByteBuffer bytes = ByteBuffer.allocate(BUFFER_BYTES);
+
+        /**
+         * Appends line and its '\n' as one unit: a drain between the two would let another thread's batch land
+         * in the middle of the line.
+         */
+        void appendLine(byte[] line) {
+            if (bytes == null) {
+                throw new IllegalStateException("Sink is closed");
+            }
+            if (line.length + 1 > bytes.remaining()) {
+                drain();
+                if (line.length + 1 > bytes.capacity()) {
+                    synchronized (channel) {
+                        write(ByteBuffer.wrap(line));
+                        write(ByteBuffer.wrap(NEWLINE));
+                    }
+                    return;
+                }
+            }
+            bytes.put(line).put((byte) '\n');
+        }
+
+        void drain() {
+            if (bytes == null || bytes.position() == 0) {
+                return;
+            }
+            bytes.flip();
+            synchronized (channel) {
+                write(bytes);
+            }
+            bytes.clear();
+        }
+
+        /**
+         * Lets go of the buffer memory; the thread's ThreadLocal entry then only holds this small object.
+         */
+        void release() {
+            bytes = null;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package api.statistics;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * DoubleSummaryStatistics plus variance, standard deviation and approximate percentiles, in one pass.
+ * DoubleSummaryStatistics gives count, sum, min, max and average. Getting a standard deviation or a p95 out of
+ * a stream used to mean streaming the data a second time, or sorting all of it. This class keeps:
+ * 1. the running mean and the sum of squared differences from it (Welford's algorithm), which is numerically
+ *    stable, unlike the textbook sum-of-squares formula that cancels badly for large values.
+ * 2. a QuantileSketch with fixed memory for p50/p95/p99 and any other quantile.
+ * accept() never allocates, and combine() merges two partial results exactly (Chan et al.'s parallel update
+ * for the mean and variance, bucket-wise addition for the sketch), so it is safe under parallel():
+ *      DoubleStatistics stats = salaries.parallel()
+ *              .collect(DoubleStatistics::new, DoubleStatistics::accept, DoubleStatistics::combine);
+ *      DoubleStatistics stats = employees.parallelStream().collect(DoubleStatistics.summarizing(Employee::getSalary));
+ * Like DoubleSummaryStatistics it is not thread-safe; each thread uses its own instance.
+ */
+public class DoubleStatistics implements DoubleConsumer {
+    private final QuantileSketch sketch;
+    private long count;
+    private double sum;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public DoubleStatistics() {
+        this(QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param relativeAccuracy the relative error allowed for percentiles, e.g. 0.01 for 1%
+     */
+    public DoubleStatistics(double relativeAccuracy) {
+        this.sketch = new QuantileSketch(relativeAccuracy);
+    }
+
+    public static <T> Collector<T, ?, DoubleStatistics> summarizing(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(
+                DoubleStatistics::new,
+                (stats, element) -> stats.accept(mapper.applyAsDouble(element)),
+                DoubleStatistics::combine,
+                Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+
+    @Override
+    public void accept(double value) {
+        sketch.accept(value);
+        count++;
+        sum += value;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Merges other into this instance, as if all of other's values had been accepted here.
+     */
+    public DoubleStatistics combine(DoubleStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        sketch.merge(other.sketch);
+        if (count == 0) {
+            mean = other.mean;
+            m2 = other.m2;
+        } else {
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Minimum value, or Double.POSITIVE_INFINITY when no values were recorded (same as DoubleSummaryStatistics).
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Maximum value, or Double.NEGATIVE_INFINITY when no values were recorded (same as DoubleSummaryStatistics).
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Arithmetic mean, or 0 when no values were recorded (same as DoubleSummaryStatistics).
+     */
+    public double getAverage() {
+        return count == 0 ? 0 : mean;
+    }
+
+    /**
+     * Population variance: the mean squared distance from the average. 0 when fewer than two values were recorded.
+     */
+    public double getVariance() {
+        return count < 2 ? 0 : m2 / count;
+    }
+
+    /**
+     * Sample variance (divides by n - 1), the unbiased estimate when the values are a sample of a larger set.
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0 : m2 / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getSampleStandardDeviation() {
+        return Math.sqrt(getSampleVariance());
+    }
+
+    /**
+     * Approximate percentile, e.g. getPercentile(95) for p95. NaN when no values were recorded.
+     */
+    public double getPercentile(double percentile) {
+        return sketch.quantile(percentile / 100);
+    }
+
+    public double getMedian() {
+        return getPercentile(50);
+    }
+
+    public double getP95() {
+        return getPercentile(95);
+    }
+
+    public double getP99() {
+        return getPercentile(99);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s{count=%d, sum=%f, min=%f, average=%f, max=%f, stddev=%f, p50=%f, p95=%f, p99=%f}",
+                getClass().getSimpleName(), count, sum, min, getAverage(), max, getStandardDeviation(),
+                getMedian(), getP95(), getP99());
+    }
+}
@@ -0,0 +1,175 @@
+package api.statistics;
+
+/**
+ * A fixed-memory, mergeable sketch for approximate quantiles (p50, p95, p99...).
+ * Sorting the data to read a percentile costs O(n log n) and keeps every value in memory. Instead, this sketch
+ * counts values in logarithmic buckets: bucket i holds the values in (gamma^(i-1), gamma^i], where
+ * gamma = (1 + a) / (1 - a) for a relative accuracy a. Any quantile read from the buckets is then within a
+ * factor a of the exact value (the same idea as DDSketch, or the log buckets of an HDR histogram):
+ * 1. accept() is O(1) and never allocates, apart from the one-time allocation of the negative buckets
+ *    the first time a negative value shows up.
+ * 2. memory is fixed by the accuracy and the indexable range, not by the number of values
+ *    (about 3,100 counters per sign for the default 1%).
+ * 3. two sketches with the same accuracy merge by adding their bucket counts, so partial sketches built by
+ *    parallel() stream workers combine into exactly the sketch a sequential run would have built.
+ * Values with a magnitude below MIN_INDEXABLE count as zero; values above MAX_INDEXABLE, infinities included,
+ * fall into the last bucket. Quantiles are always clamped to the exact min and max seen.
+ * NaN is accepted like DoubleSummaryStatistics accepts it: it is counted, and from then on every quantile is NaN,
+ * the way its min, max and average become NaN.
+ */
+public class QuantileSketch {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    static final double MIN_INDEXABLE = 1e-9;
+    static final double MAX_INDEXABLE = 1e18;
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final int minIndex;
+    private final long[] positive;
+    private long[] negative;
+    private long zeroCount;
+    private long nanCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        this.minIndex = rawIndex(MIN_INDEXABLE);
+        this.positive = new long[rawIndex(MAX_INDEXABLE) - minIndex + 1];
+    }
+
+    private int rawIndex(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    private int bucket(double magnitude) {
+        // Clamp before indexing: rawIndex(+Infinity) is Integer.MAX_VALUE, and subtracting minIndex would overflow.
+        return Math.min(rawIndex(Math.min(magnitude, MAX_INDEXABLE)) - minIndex, positive.length - 1);
+    }
+
+    /**
+     * Representative value of a bucket: the point with the same relative distance to both bucket bounds.
+     */
+    private double valueOf(int bucket) {
+        return 2 * Math.exp((bucket + minIndex) * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    public void accept(double value) {
+        if (Double.isNaN(value)) {
+            nanCount++;
+            return;
+        }
+        if (value > MIN_INDEXABLE) {
+            positive[bucket(value)]++;
+        } else if (value < -MIN_INDEXABLE) {
+            if (negative == null) {
+                negative = new long[positive.length];
+            }
+            negative[bucket(-value)]++;
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the counts of other into this sketch. Both sketches must use the same relative accuracy.
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (Double.compare(relativeAccuracy, other.relativeAccuracy) != 0) {
+            throw new IllegalArgumentException("Cannot merge sketches with relative accuracy "
+                    + relativeAccuracy + " and " + other.relativeAccuracy);
+        }
+        add(positive, other.positive);
+        if (other.negative != null) {
+            if (negative == null) {
+                negative = new long[positive.length];
+            }
+            add(negative, other.negative);
+        }
+        zeroCount += other.zeroCount;
+        nanCount += other.nanCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    private static void add(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    /**
+     * Approximate value at quantile q (0 = min, 0.5 = median, 1 = max), or NaN when nothing or a NaN was added.
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        if (count == 0 || nanCount > 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (q * (count - 1));
+        if (rank == 0) {
+            return min;
+        }
+        if (rank == count - 1) {
+            return max;
+        }
+        long seen = 0;
+        if (negative != null) {
+            // Most negative values first: the highest buckets of the negative side.
+            for (int i = negative.length - 1; i >= 0; i--) {
+                seen += negative[i];
+                if (seen > rank) {
+                    return clamp(-valueOf(i));
+                }
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return clamp(0);
+        }
+        for (int i = 0; i < positive.length; i++) {
+            seen += positive[i];
+            if (seen > rank) {
+                return clamp(valueOf(i));
+            }
+        }
+        return max;
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Number of values accepted, NaN included.
+     */
+    public long getCount() {
+        return count + nanCount;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch{count=" + count + ", relativeAccuracy=" + relativeAccuracy
+                + ", min=" + min + ", median=" + quantile(0.5) + ", max=" + max + '}';
+    }
+}
@@ -0,0 +1,244 @@
+package api.views;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A read-only List view of the elements of a List of Lists, in order, without copying them:
+ *      List<String> names = FlattenedList.of(teams);            // instead of teams.stream().flatMap(List::stream).toList()
+ *      names.get(4);                                            // the 2nd name of the 2nd team, if the 1st has 3
+ *      names.parallelStream().filter(...).count();              // SIZED, splits between teams
+ * flatMap(List::stream) followed by toList() copies every reference into a new array, and a flatMap() stage
+ * by itself makes the stream lose its size and split badly (a parallel flatMap() runs each inner stream on a
+ * single thread). This view keeps the outer list and two small int arrays:
+ * 1. offsets: the prefix sums of the sizes, offsets[i] = index of the first element of list i.
+ * 2. blocks: for every block of 2^shift element indexes, the list holding the first index of the block, with
+ *    2^shift about the average list size. get(index) starts at the list of its block and, since a block spans
+ *    about one list, moves on at most a step or two: O(1) unless sizes vary wildly, where it falls back to a
+ *    binary search over the lists in the block, O(log lists).
+ * 3. spliterator() is SIZED and SUBSIZED and splits on list boundaries, near the middle element, so each
+ *    half is a run of whole lists; a single remaining list is split inside it.
+ * The sizes are taken when the view is created: element changes (set() on an inner list) show through, but
+ * adding to or removing from the inner lists or the outer list is not supported and makes the view wrong.
+ * get() is O(1) only if the inner lists are RandomAccess.
+ */
+public final class FlattenedList<T> extends AbstractList<T> implements RandomAccess {
+    /**
+     * Linear steps get() takes through the lists of a block before it binary-searches instead.
+     */
+    private static final int MAX_STEPS = 4;
+
+    private final List<? extends List<? extends T>> lists;
+    private final int[] offsets;
+    private final int[] blocks;
+    private final int shift;
+    private final int size;
+
+    private FlattenedList(List<? extends List<? extends T>> lists) {
+        this.lists = lists;
+        this.offsets = new int[lists.size() + 1];
+        long total = 0;
+        for (int i = 0; i < lists.size(); i++) {
+            offsets[i] = (int) total;
+            total += lists.get(i).size();
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("More than Integer.MAX_VALUE elements: a List cannot hold them");
+            }
+        }
+        this.size = (int) total;
+        offsets[lists.size()] = size;
+        int average = lists.isEmpty() ? 1 : Math.max(1, size / lists.size());
+        this.shift = 31 - Integer.numberOfLeadingZeros(average);
+        this.blocks = new int[(size >>> shift) + 1];
+        int list = 0;
+        for (int block = 0; block < blocks.length; block++) {
+            int first = block << shift;
+            while (list < lists.size() - 1 && offsets[list + 1] <= first) {
+                list++;
+            }
+            blocks[block] = list;
+        }
+    }
+
+    public static <T> FlattenedList<T> of(List<? extends List<? extends T>> lists) {
+        return new FlattenedList<>(lists);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of inner lists.
+     */
+    public int listCount() {
+        return lists.size();
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        int list = listOf(index);
+        return lists.get(list).get(index - offsets[list]);
+    }
+
+    /**
+     * The inner list that holds element index; for empty lists the last list that starts at index is skipped to.
+     */
+    int listOf(int index) {
+        int block = index >>> shift;
+        int list = blocks[block];
+        for (int step = 0; step < MAX_STEPS; step++) {
+            if (offsets[list + 1] > index) {
+                return list;
+            }
+            list++;
+        }
+        int low = list;
+        int high = block + 1 < blocks.length ? blocks[block + 1] : lists.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int list;
+            private Iterator<? extends T> current = nextNonEmpty();
+
+            private Iterator<? extends T> nextNonEmpty() {
+                while (list < lists.size()) {
+                    List<? extends T> inner = lists.get(list++);
+                    if (!inner.isEmpty()) {
+                        return inner.iterator();
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public T next() {
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+                T element = current.next();
+                if (!current.hasNext()) {
+                    current = nextNonEmpty();
+                }
+                return element;
+            }
+        };
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        for (List<? extends T> inner : lists) {
+            inner.forEach(action);
+        }
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new FlattenedSpliterator(0, size);
+    }
+
+    /**
+     * Elements [index, end) of the view. Splits at the list boundary nearest to the middle element.
+     */
+    private final class FlattenedSpliterator implements Spliterator<T> {
+        private int index;
+        private final int end;
+
+        FlattenedSpliterator(int index, int end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int remaining = end - index;
+            if (remaining < 2) {
+                return null;
+            }
+            int middle = index + remaining / 2;
+            int list = listOf(middle);
+            int start = offsets[list];
+            int next = offsets[list + 1];
+            // The boundary of middle's list nearest to middle, if it lies strictly inside [index, end).
+            int boundary = middle - start <= next - middle ? start : next;
+            if (boundary <= index || boundary >= end) {
+                boundary = boundary == start ? next : start;
+            }
+            if (boundary <= index || boundary >= end) {
+                // Everything left is in one list: split inside it.
+                boundary = middle;
+            }
+            Spliterator<T> prefix = new FlattenedSpliterator(index, boundary);
+            index = boundary;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(get(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            int position = index;
+            if (position >= end) {
+                return;
+            }
+            index = end;
+            int list = listOf(position);
+            while (position < end) {
+                List<? extends T> inner = lists.get(list);
+                int start = offsets[list];
+                int stop = Math.min(offsets[list + 1], end) - start;
+                if (inner instanceof RandomAccess) {
+                    for (int i = position - start; i < stop; i++) {
+                        action.accept(inner.get(i));
+                    }
+                } else {
+                    inner.subList(position - start, stop).forEach(action);
+                }
+                position = start + stop;
+                list++;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+}